@@ -1,16 +1,20 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,16 +22,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         MeterRegistry meterRegistry, ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size,
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size,
                                               boolean isOwner) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
@@ -41,19 +41,51 @@ public class BookingClient extends BaseClient {
         }
     }
 
+    public Mono<ResponseEntity<Object>> getBookingsSlice(long userId, BookingState state, String cursor, Integer size,
+                                                   boolean isOwner) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        if (isOwner) {
+            return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        } else {
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
+    }
+
+    public Mono<ResponseEntity<Flux<String>>> exportBookings(long userId, BookingState state, boolean isOwner) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name()
+        );
+        if (isOwner) {
+            return getStream("/owner/export?state={state}", userId, parameters);
+        } else {
+            return getStream("/export?state={state}", userId, parameters);
+        }
+    }
 
-    public ResponseEntity<Object> bookItem(long userId, BookingDtoReceived bookingDtoReceived) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingDtoReceived bookingDtoReceived) {
         return post("", userId, bookingDtoReceived);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookingDtoReceived> bookingDtosReceived) {
+        return post("/batch", userId, bookingDtosReceived);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> approveBooking(Long bookingId, Boolean isApproved, Long userId) {
+    public Mono<ResponseEntity<Object>> approveBooking(Long bookingId, Boolean isApproved, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "isApproved", isApproved
         );
         return patch("/" + bookingId + "?approved={isApproved}", userId, parameters, null);
     }
+
+    public Mono<ResponseEntity<Object>> approveBookings(List<BookingDecisionDto> decisions, Long userId) {
+        return patch("/batch", userId, decisions);
+    }
 }
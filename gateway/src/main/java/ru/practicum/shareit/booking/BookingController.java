@@ -1,6 +1,7 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,6 +13,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.StatusException;
@@ -19,7 +23,10 @@ import ru.practicum.shareit.exception.StatusException;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 
@@ -31,26 +38,40 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@Valid @RequestBody BookingDtoReceived bookingDtoReceived,
-                                                @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> createBooking(@Valid @RequestBody BookingDtoReceived bookingDtoReceived,
+                                                      @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return bookingClient.bookItem(userId, bookingDtoReceived);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingDtoReceived> bookingDtosReceived,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        return bookingClient.bookItems(userId, bookingDtosReceived);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> approveBookings(
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingDecisionDto> decisions,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        return bookingClient.approveBookings(decisions, userId);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@PathVariable @Positive Long bookingId,
-                                                 @RequestParam(value = "approved") Boolean isApproved,
-                                                 @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> approveBooking(@PathVariable @Positive Long bookingId,
+                                                       @RequestParam(value = "approved") Boolean isApproved,
+                                                       @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return bookingClient.approveBooking(bookingId, isApproved, userId);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@PathVariable @Positive Long bookingId,
-                                                 @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@PathVariable @Positive Long bookingId,
+                                                       @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUser(
+    public Mono<ResponseEntity<Object>> getAllBookingsByUser(
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @RequestParam(name = "from", defaultValue = "0") @Min(value = 0L) Integer from,
             @RequestParam(name = "size", defaultValue = "10") @Positive @Max(value = 100) Integer size,
@@ -60,8 +81,19 @@ public class BookingController {
         return bookingClient.getBookings(userId, state, from, size, false);
     }
 
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<Object>> getBookingsSliceByUser(
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "cursor") @Size(max = 256) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") @Positive @Max(value = 100) Integer size,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new StatusException("Unknown state: " + stateParam));
+        return bookingClient.getBookingsSlice(userId, state, cursor, size, false);
+    }
+
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwner(
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @RequestParam(name = "from", defaultValue = "0") @Min(value = 0L) Integer from,
             @RequestParam(name = "size", defaultValue = "10") @Positive @Max(value = 100) Integer size,
@@ -70,5 +102,37 @@ public class BookingController {
                 .orElseThrow(() -> new StatusException("Unknown state: " + stateParam));
         return bookingClient.getBookings(ownerId, state, from, size, true);
     }
-}
 
+    @GetMapping(value = "/owner", params = "cursor")
+    public Mono<ResponseEntity<Object>> getBookingsSliceByOwner(
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @RequestParam(name = "cursor") @Size(max = 256) String cursor,
+            @RequestParam(name = "size", defaultValue = "10") @Positive @Max(value = 100) Integer size,
+            @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new StatusException("Unknown state: " + stateParam));
+        return bookingClient.getBookingsSlice(ownerId, state, cursor, size, true);
+    }
+
+    /**
+     * Выгрузка всей истории бронирований без ограничения размера страницы: строки NDJSON от сервера передаются
+     * клиенту по мере получения.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<String>>> exportBookingsByUser(
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new StatusException("Unknown state: " + stateParam));
+        return bookingClient.exportBookings(userId, state, false);
+    }
+
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<String>>> exportBookingsByOwner(
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new StatusException("Unknown state: " + stateParam));
+        return bookingClient.exportBookings(ownerId, state, true);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+@Data
+@Builder
+@NoArgsConstructor
+public class BookingDecisionDto {
+    @NotNull
+    @Positive
+    private Long bookingId;
+    @NotNull
+    private Boolean approved;
+
+    public BookingDecisionDto(Long bookingId, Boolean approved) {
+        this.bookingId = bookingId;
+        this.approved = approved;
+    }
+}
@@ -2,123 +2,261 @@ package ru.practicum.shareit.client;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.springframework.http.HttpEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 
+/**
+ * Неблокирующий клиент shareit-server. Запрос не занимает поток сервлета на время ожидания ответа:
+ * контроллеры возвращают Mono, и ответ дописывается асинхронно, когда его пришлёт сервер.
+ * Тело ответа сервера (и успешного, и с ошибкой) передаётся клиенту шлюза без разбора JSON - массивом байт
+ * вместе с Content-Type и остальными заголовками (например, X-Next-Cursor и X-Total-Count), кроме заголовков
+ * соединения.
+ * Одинаковые GET-запросы, выполняющиеся одновременно, объединяются: серверу отправляется один запрос, и его ответ
+ * получают все ожидающие. Запросы одинаковы, если совпадают путь, параметры и X-Sharer-User-Id; для ответов,
+ * не зависящих от пользователя (см. getShared), идентификатор пользователя не учитывается. Доля объединённых
+ * запросов видна в метрике gateway.client.get.requests с тегом result=coalesced|sent.
+ * Ответы на запросы getRevalidated хранятся в ResponseCache и при повторном запросе проверяются на сервере
+ * по ETag: если ресурс не изменился, сервер отвечает 304 без тела, и клиенту возвращается сохранённый ответ.
+ * Ответы getStream (выгрузки в формате NDJSON) не накапливаются: строки передаются клиенту по мере получения.
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    private static final Set<String> EXCLUDED_RESPONSE_HEADERS = Set.of(HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING, "Keep-Alive");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient webClient;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlightGets = new ConcurrentHashMap<>();
+    private final Counter sentGets;
+    private final Counter coalescedGets;
+    private final ResponseCache responseCache;
+
+    public BaseClient(WebClient webClient, MeterRegistry meterRegistry, ResponseCache responseCache) {
+        this.webClient = webClient;
+        this.responseCache = responseCache;
+        String client = getClass().getSimpleName();
+        this.sentGets = Counter.builder("gateway.client.get.requests")
+                .description("GET-запросы к shareit-server: отправленные и объединённые с уже выполняющимися")
+                .tag("client", client)
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.coalescedGets = Counter.builder("gateway.client.get.requests")
+                .tag("client", client)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return singleFlight(flightKey(path, userId, parameters),
+                makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null));
+    }
+
+    protected Mono<ResponseEntity<Object>> getRevalidated(String path) {
+        return getRevalidated(path, null);
+    }
+
+    /**
+     * GET-запрос ресурса, для которого сервер отдаёт ETag: сохранённый ответ проверяется запросом
+     * с If-None-Match и возвращается, если сервер ответил 304.
+     */
+    protected Mono<ResponseEntity<Object>> getRevalidated(String path, Long userId) {
+        String key = flightKey(path, userId, null);
+        return singleFlight(key, Mono.defer(() -> {
+            ResponseEntity<Object> cached = responseCache.get(key);
+            String eTag = cached != null ? cached.getHeaders().getETag() : null;
+            return makeAndSendRequest(HttpMethod.GET, path, userId, null, null, eTag)
+                    .map(response -> {
+                        if (cached != null) {
+                            boolean isNotModified = response.getStatusCode() == HttpStatus.NOT_MODIFIED;
+                            responseCache.recordRevalidation(isNotModified);
+                            if (isNotModified) {
+                                return cached;
+                            }
+                        }
+                        responseCache.update(key, response);
+                        return response;
+                    });
+        }));
+    }
+
+    /**
+     * GET-запрос, ответ на который не зависит от пользователя: одновременные запросы разных пользователей
+     * объединяются в один.
+     */
+    protected Mono<ResponseEntity<Object>> getShared(String path, Long userId,
+                                                     @Nullable Map<String, Object> parameters) {
+        return singleFlight(flightKey(path, null, parameters),
+                makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null, null));
+    }
+
+    /**
+     * GET-запрос выгрузки в формате NDJSON. Тело ответа передаётся построчно (каждая строка с завершающим
+     * переводом строки) по мере получения от сервера,
+     * поэтому ограничение spring.codec.max-in-memory-size действует на одну строку, а не на весь ответ.
+     * Ответ с ошибкой передаётся так же, с кодом ответа сервера. Запросы не объединяются.
+     * Если сервер не указал Content-Type успешного ответа, выставляется application/x-ndjson.
+     */
+    protected Mono<ResponseEntity<Flux<String>>> getStream(String path, Long userId,
+                                                           @Nullable Map<String, Object> parameters) {
+        return webClient.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+                })
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(String.class)
+                .map(response -> {
+                    HttpHeaders headers = gatewayHeaders(response.getHeaders());
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                    if (response.getStatusCode().is2xxSuccessful() && headers.getContentType() == null) {
+                        headers.setContentType(MediaType.APPLICATION_NDJSON);
+                    }
+                    // строки приходят без разделителя, а Spring MVC пишет элементы Flux<String> в ответ как есть
+                    Flux<String> lines = response.getBody().map(line -> line + '\n');
+                    return new ResponseEntity<>(lines, headers, response.getStatusCode());
+                });
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                    T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters,
+                                                   T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                     T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body, null);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body, @Nullable String eTag) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    if (eTag != null) {
+                        headers.setIfNoneMatch(eTag);
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(BaseClient::toGatewayResponse);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+    private Mono<ResponseEntity<Object>> singleFlight(String key, Mono<ResponseEntity<Object>> request) {
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> flight = inFlightGets.get(key);
+            if (flight == null) {
+                // Запись удаляется после того, как ответ получен всеми ожидающими; следующий запрос уйдёт на сервер.
+                // Удаляется только этот запрос: запись более нового запроса с тем же ключом остаётся
+                AtomicReference<Mono<ResponseEntity<Object>>> registered = new AtomicReference<>();
+                Mono<ResponseEntity<Object>> newFlight = request
+                        .doFinally(signal -> inFlightGets.remove(key, registered.get()))
+                        .cache();
+                registered.set(newFlight);
+                flight = inFlightGets.putIfAbsent(key, newFlight);
+                if (flight == null) {
+                    sentGets.increment();
+                    return newFlight;
+                }
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+            coalescedGets.increment();
+            return flight;
+        });
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    private static String flightKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+        return path + ' ' + (parameters != null ? new TreeMap<>(parameters) : Map.of()) + ' ' + userId;
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set(USER_REQUEST_HEADER, String.valueOf(userId));
         }
-        return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
+    private static HttpHeaders gatewayHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (EXCLUDED_RESPONSE_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
 
-        return responseBuilder.build();
+    private static Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        HttpHeaders headers = gatewayHeaders(response.headers().asHttpHeaders());
+        return response.bodyToMono(byte[].class)
+                .<ResponseEntity<Object>>map(body -> new ResponseEntity<>(body, headers, response.statusCode()))
+                .defaultIfEmpty(new ResponseEntity<>(headers, response.statusCode()));
     }
 }
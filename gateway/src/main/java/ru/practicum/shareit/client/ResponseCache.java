@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.config.ServerClientProperties;
+
+/**
+ * Кэш ответов shareit-server с ETag, общий для всех клиентов gateway. Ответ из кэша не отдаётся без проверки:
+ * запрос уходит на сервер с If-None-Match, и только ответ 304 позволяет вернуть сохранённое тело, поэтому
+ * кэш не ослабляет гарантии актуальности сервера. Размер кэша ограничен shareit-server.client.response-cache-max-size.
+ * Метрики: cache.gets и cache.size с тегом cache=gateway.responses, gateway.client.revalidations с тегом
+ * result=not_modified|modified.
+ */
+@Component
+public class ResponseCache {
+    private final Cache<String, ResponseEntity<Object>> responses;
+    private final Counter notModified;
+    private final Counter modified;
+
+    public ResponseCache(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getResponseCacheMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "gateway.responses");
+        this.notModified = Counter.builder("gateway.client.revalidations")
+                .description("Проверки ответов из кэша gateway на сервере по ETag")
+                .tag("result", "not_modified")
+                .register(meterRegistry);
+        this.modified = Counter.builder("gateway.client.revalidations")
+                .tag("result", "modified")
+                .register(meterRegistry);
+    }
+
+    @Nullable
+    public ResponseEntity<Object> get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Сохраняет успешный ответ с ETag и удаляет сохранённый ответ в остальных случаях.
+     */
+    public void update(String key, ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful() && response.getHeaders().getETag() != null) {
+            responses.put(key, response);
+        } else {
+            responses.invalidate(key);
+        }
+    }
+
+    void recordRevalidation(boolean isNotModified) {
+        (isNotModified ? notModified : modified).increment();
+    }
+}
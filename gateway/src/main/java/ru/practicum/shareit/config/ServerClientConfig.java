@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Общий пул соединений с shareit-server. Коннектор подключается ко всем WebClient, созданным из
+ * WebClient.Builder, поэтому BookingClient, ItemClient, RequestClient и UserClient используют одни и те же
+ * соединения с keep-alive.
+ * Метрики пула публикуются через actuator: reactor.netty.connection.provider.active.connections,
+ * idle.connections, pending.connections, max.connections и время ожидания соединения
+ * reactor.netty.connection.provider.pending.connections.time (тег name=shareit-server).
+ */
+@Configuration
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(ServerClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector serverClientHttpConnector(ConnectionProvider serverConnectionProvider,
+                                                         ServerClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки пула соединений gateway с shareit-server, общего для всех клиентов.
+ * Все запросы идут к одному адресу, поэтому ограничение числа соединений пула действует и на весь пул,
+ * и на маршрут к серверу.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    /**
+     * Максимальное число открытых соединений с сервером.
+     */
+    private int maxConnections = 100;
+    /**
+     * Максимальное число запросов, ожидающих свободного соединения; остальные сразу завершаются ошибкой.
+     */
+    private int pendingAcquireMaxCount = 500;
+    /**
+     * Максимальное время ожидания свободного соединения.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    /**
+     * Соединение, простаивающее дольше, закрывается.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    /**
+     * Соединение, открытое дольше, закрывается после завершения текущего запроса.
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    /**
+     * Период фоновой проверки пула на простаивающие и устаревшие соединения.
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Максимальное время ожидания ответа сервера после отправки запроса.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(10);
+    /**
+     * Максимальное число ответов в кэше gateway, которые проверяются на сервере по ETag.
+     */
+    private long responseCacheMaxSize = 10000;
+}
@@ -2,4 +2,5 @@ package ru.practicum.shareit.constant;
 
 public class ConstantKeeper {
     public static final String USER_REQUEST_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
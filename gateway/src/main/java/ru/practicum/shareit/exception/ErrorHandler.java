@@ -1,11 +1,13 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import javax.validation.ConstraintViolationException;
 import javax.validation.ValidationException;
@@ -28,6 +30,20 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage(), "");
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handle(WebClientRequestException e) {
+        log.warn("Получен статус 503 Service Unavailable {}", e.getMessage(), e);
+        return new ErrorResponse("Сервер недоступен", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_GATEWAY)
+    public ErrorResponse handle(DataBufferLimitException e) {
+        log.warn("Получен статус 502 Bad Gateway {}", e.getMessage(), e);
+        return new ErrorResponse("Ответ сервера превышает допустимый размер", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handle(Throwable e) {
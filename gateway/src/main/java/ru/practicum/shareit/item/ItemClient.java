@@ -1,13 +1,14 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.comment.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 
@@ -18,16 +19,12 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      MeterRegistry meterRegistry, ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
-    public ResponseEntity<Object> getItems(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getItems(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -35,32 +32,32 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemDtoRequest itemDtoRequest) {
+    public Mono<ResponseEntity<Object>> createItem(Long userId, ItemDtoRequest itemDtoRequest) {
         return post("", userId, itemDtoRequest);
     }
 
-    public ResponseEntity<Object> getItem(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItem(Long userId, Long itemId) {
+        return getRevalidated("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDtoRequest itemDtoRequest) {
+    public Mono<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemDtoRequest itemDtoRequest) {
         return patch("/" + itemId, userId, itemDtoRequest);
     }
 
-    public ResponseEntity<Object> deleteItem(Long itemId, Long userId) {
+    public Mono<ResponseEntity<Object>> deleteItem(Long itemId, Long userId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> search(String text, Integer from, Integer size, Long userId) {
+    public Mono<ResponseEntity<Object>> search(String text, Integer from, Integer size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return getShared("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(Long userId, Long itemId, CommentDtoRequest commentDtoRequest) {
+    public Mono<ResponseEntity<Object>> createComment(Long userId, Long itemId, CommentDtoRequest commentDtoRequest) {
         return post("/" + itemId + "/comment", userId, commentDtoRequest);
     }
 }
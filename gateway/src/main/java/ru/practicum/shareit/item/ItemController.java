@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.comment.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.user.validator.OnCreate;
@@ -35,54 +36,55 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestParam(defaultValue = "0") @Min(value = 0L) Integer from,
-                                           @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size,
-                                           @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+    public Mono<ResponseEntity<Object>> getItems(@RequestParam(defaultValue = "0") @Min(value = 0L) Integer from,
+                                                 @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size,
+                                                 @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
         return itemClient.getItems(ownerId, from, size);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItem(@PathVariable @Positive Long itemId,
-                                          @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getItem(@PathVariable @Positive Long itemId,
+                                                @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return itemClient.getItem(userId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text,
-                                         @RequestParam(defaultValue = "0") @Min(value = 0L) Integer from,
-                                         @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size,
-                                         @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> search(@RequestParam String text,
+                                               @RequestParam(defaultValue = "0") @Min(value = 0L) Integer from,
+                                               @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size,
+                                               @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         if (text.isBlank()) {
-            return ResponseEntity.ok(List.of());
+            return Mono.just(ResponseEntity.ok(List.of()));
         } else {
             return itemClient.search(text, from, size, userId);
         }
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@Validated({OnCreate.class}) @RequestBody ItemDtoRequest itemDtoRequest,
-                                             @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+    public Mono<ResponseEntity<Object>> createItem(@Validated({OnCreate.class}) @RequestBody ItemDtoRequest itemDtoRequest,
+                                                   @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
         return itemClient.createItem(ownerId, itemDtoRequest);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@Validated({OnUpdate.class}) @RequestBody ItemDtoRequest itemDtoRequest,
-                                             @PathVariable @Positive Long itemId,
-                                             @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+    public Mono<ResponseEntity<Object>> updateItem(@Validated({OnUpdate.class}) @RequestBody ItemDtoRequest itemDtoRequest,
+                                                   @PathVariable @Positive Long itemId,
+                                                   @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
         return itemClient.updateItem(ownerId, itemId, itemDtoRequest);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Void> deleteItem(@PathVariable @Positive Long itemId,
-                                           @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
-        itemClient.deleteItem(itemId, ownerId);
-        return ResponseEntity.noContent().build();
+    public Mono<ResponseEntity<Object>> deleteItem(@PathVariable @Positive Long itemId,
+                                                   @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+        return itemClient.deleteItem(itemId, ownerId)
+                .map(response -> response.getStatusCode().is2xxSuccessful()
+                        ? ResponseEntity.noContent().build() : response);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@Valid @RequestBody CommentDtoRequest commentDtoRequest,
-                                                @PathVariable @Positive Long itemId,
-                                                @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> createComment(@Valid @RequestBody CommentDtoRequest commentDtoRequest,
+                                                      @PathVariable @Positive Long itemId,
+                                                      @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return itemClient.createComment(userId, itemId, commentDtoRequest);
     }
 }
@@ -1,52 +1,101 @@
 package ru.practicum.shareit.logger;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
-import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Enumeration;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Журнал доступа: одна строка на запрос с методом, адресом, статусом ответа и временем обработки.
+ * Запросы, завершившиеся ошибкой сервера, и запросы дольше shareit.access-log.slow-threshold записываются всегда,
+ * остальные - с вероятностью shareit.access-log.sample-rate. Строка собирается, только если она будет записана;
+ * вывод выполняет асинхронный appender (logback-spring.xml), который при переполнении очереди отбрасывает строки,
+ * а не задерживает запрос. Число записанных и пропущенных строк - метрика shareit.access-log.requests.
+ */
 @Slf4j
 @Component
-public class LoggerInterceptor implements HandlerInterceptor {
-    @Override
-    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        log.info("[preHandle][{}][{}] {} {}", request, request.getMethod(), request.getRequestURI(), getParameters(request));
-        return true;
+public class LoggerInterceptor implements AsyncHandlerInterceptor {
+    private static final String STARTED_AT = LoggerInterceptor.class.getName() + ".startedAt";
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public LoggerInterceptor(@Value("${shareit.access-log.sample-rate:1.0}") double sampleRate,
+                             @Value("${shareit.access-log.slow-threshold:1s}") Duration slowThreshold,
+                             ObjectProvider<MeterRegistry> meterRegistry) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder("shareit.access-log.requests", logged, LongAdder::sum)
+                    .tag("result", "logged")
+                    .register(registry);
+            FunctionCounter.builder("shareit.access-log.requests", skipped, LongAdder::sum)
+                    .description("Запросы, не попавшие в журнал доступа из-за выборки")
+                    .tag("result", "skipped")
+                    .register(registry);
+        });
     }
 
+    /**
+     * Время начала сохраняется только при первом вызове: при асинхронной обработке метод вызывается повторно
+     * в потоке, продолжающем запрос.
+     */
     @Override
-    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
-                           ModelAndView modelAndView) {
-        log.info("[postHandle][{}]", request);
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(STARTED_AT) == null) {
+            request.setAttribute(STARTED_AT, System.nanoTime());
+        }
+        return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
                                 Exception ex) {
-        if (ex != null) {
-            ex.printStackTrace();
+        Object startedAt = request.getAttribute(STARTED_AT);
+        long elapsedNanos = startedAt == null ? 0 : System.nanoTime() - (Long) startedAt;
+        int status = response.getStatus();
+        if (ex != null || status >= 500) {
+            if (log.isWarnEnabled()) {
+                logged.increment();
+                log.warn("method={} uri={} status={} durationMs={}", request.getMethod(), uri(request), status,
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ex);
+                return;
+            }
+        } else if (log.isInfoEnabled() && (elapsedNanos >= slowThresholdNanos || sampled())) {
+            logged.increment();
+            log.info("method={} uri={} status={} durationMs={}", request.getMethod(), uri(request), status,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            return;
         }
-        log.info("[afterCompletion][{}][exception: " + ex + "]", request);
+        skipped.increment();
     }
 
-    private String getParameters(HttpServletRequest request) {
-        StringBuffer posted = new StringBuffer();
-        Enumeration<?> e = request.getParameterNames();
-        if (e != null) {
-            posted.append("?");
-        }
-        while (e.hasMoreElements()) {
-            if (posted.length() > 1) {
-                posted.append("&");
-            }
-            String curr = (String) e.nextElement();
-            posted.append(curr + "=");
-            posted.append(request.getParameter(curr));
-        }
-        return posted.toString();
+    public long getLoggedCount() {
+        return logged.sum();
+    }
+
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private static String uri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
     }
 }
@@ -1,13 +1,14 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 
 import java.util.Map;
@@ -17,20 +18,16 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         MeterRegistry meterRegistry, ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
-    public ResponseEntity<Object> getRequests(Long userId) {
+    public Mono<ResponseEntity<Object>> getRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getRequestsWithPagination(Integer from, Integer size, Long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsWithPagination(Integer from, Integer size, Long userId) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -38,11 +35,11 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, RequestDtoPost requestDtoPost) {
+    public Mono<ResponseEntity<Object>> createRequest(Long userId, RequestDtoPost requestDtoPost) {
         return post("", userId, requestDtoPost);
     }
 
-    public ResponseEntity<Object> getRequest(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequest(Long userId, Long requestId) {
+        return getRevalidated("/" + requestId, userId);
     }
 }
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 
 import javax.validation.Valid;
@@ -28,26 +29,26 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Valid @RequestBody RequestDtoPost requestDtoPost,
-                                                @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> createRequest(@Valid @RequestBody RequestDtoPost requestDtoPost,
+                                                      @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return requestClient.createRequest(userId, requestDtoPost);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return requestClient.getRequests(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequest(@PathVariable @Positive Long requestId,
-                                             @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getRequest(@PathVariable @Positive Long requestId,
+                                                   @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return requestClient.getRequest(userId, requestId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllWithPagination(@RequestParam(defaultValue = "0") @Min(value = 0) Integer from,
-                                                       @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size,
-                                                       @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+    public Mono<ResponseEntity<Object>> getAllWithPagination(@RequestParam(defaultValue = "0") @Min(value = 0) Integer from,
+                                                             @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size,
+                                                             @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return requestClient.getRequestsWithPagination(from, size, userId);
     }
 }
@@ -1,47 +1,49 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      MeterRegistry meterRegistry, ResponseCache responseCache) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(), meterRegistry, responseCache);
     }
 
-    public ResponseEntity<Object> getUsers() {
-        return get("");
+    public Mono<ResponseEntity<Object>> getUsers(Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
     }
 
-
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getUser(Long userId) {
-        return get("/" + userId);
+    public Mono<ResponseEntity<Object>> getUser(Long userId) {
+        return getRevalidated("/" + userId);
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(Long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(Long userId) {
         return delete("/" + userId);
     }
 }
@@ -11,10 +11,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.validator.OnCreate;
 import ru.practicum.shareit.user.validator.OnUpdate;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
 
 @Controller
@@ -25,29 +29,31 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
-        return userClient.getUsers();
+    public Mono<ResponseEntity<Object>> getUsers(@RequestParam(defaultValue = "0") @Min(value = 0L) Integer from,
+                                                 @RequestParam(defaultValue = "10") @Positive @Max(value = 100) Integer size) {
+        return userClient.getUsers(from, size);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable @Positive Long userId) {
         return userClient.getUser(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Validated({OnCreate.class}) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Validated({OnCreate.class}) @RequestBody UserDto userDto) {
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@Validated({OnUpdate.class}) @RequestBody UserDto userDto,
-                                              @PathVariable @Positive Long userId) {
+    public Mono<ResponseEntity<Object>> updateUser(@Validated({OnUpdate.class}) @RequestBody UserDto userDto,
+                                                   @PathVariable @Positive Long userId) {
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Void> deleteUser(@PathVariable @Positive Long userId) {
-        userClient.deleteUser(userId);
-        return ResponseEntity.noContent().build();
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable @Positive Long userId) {
+        return userClient.deleteUser(userId)
+                .map(response -> response.getStatusCode().is2xxSuccessful()
+                        ? ResponseEntity.noContent().build() : response);
     }
 }
@@ -6,22 +6,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 
@@ -113,6 +128,71 @@ class BookingControllerTest {
         verify(bookingClient, never()).bookItem(userId, bookingDtoReceived);
     }
 
+    @Test
+    @SneakyThrows
+    void createBookings_whenOneEntryInvalid_thenStatusIsBadRequest() {
+        BookingDtoReceived invalidBooking = BookingDtoReceived.builder()
+                .start(LocalDateTime.now().plusSeconds(20))
+                .end(LocalDateTime.now().plusDays(1))
+                .itemId(null)
+                .build();
+        Long userId = 1L;
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDtoReceived, invalidBooking))))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).bookItems(anyLong(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookings_whenListIsEmpty_thenStatusIsBadRequest() {
+        mockMvc.perform(post("/bookings/batch")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).bookItems(anyLong(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void approveBookings_whenDecisionWithoutApprovedFlag_thenStatusIsBadRequest() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, null));
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).approveBookings(any(), anyLong());
+    }
+
+    @Test
+    @SneakyThrows
+    void approveBookings_whenDecisionsValid_thenForwardedToServer() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        when(bookingClient.approveBookings(decisions, 1L)).thenReturn(Mono.just(ResponseEntity.ok().build()));
+
+        MvcResult result = mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(bookingClient).approveBookings(decisions, 1L);
+    }
+
     @Test
     @SneakyThrows
     void getAllBookingsByUser_whenInvalidParams_thenResponseStatusIsBadRequest() {
@@ -168,4 +248,70 @@ class BookingControllerTest {
 
         verify(bookingClient, never()).getBookings(anyLong(), eq(BookingState.ALL), anyInt(), anyInt(), anyBoolean());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getBookingsSliceByUser_whenCursorGiven_thenSliceRequestedFromServer() {
+        Long userId = 1L;
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .param("cursor", "abc")
+                        .param("size", "20"))
+                .andExpect(status().isOk());
+
+        verify(bookingClient).getBookingsSlice(userId, BookingState.ALL, "abc", 20, false);
+        verify(bookingClient, never()).getBookings(anyLong(), any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsSliceByOwner_whenSizeParamOver100_thenResponseStatusIsBadRequest() {
+        Long userId = 1L;
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .param("cursor", "")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).getBookingsSlice(anyLong(), any(), any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByOwner_whenServerStreamsLines_thenLinesWrittenAsNdjson() {
+        Long ownerId = 1L;
+        when(bookingClient.exportBookings(ownerId, BookingState.PAST, true))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(Flux.just("{\"id\":1}\n", "{\"id\":2}\n"))));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_REQUEST_HEADER, ownerId)
+                        .param("state", "PAST"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult streamed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // строки пишутся в ответ асинхронно: ждём завершения потока, прежде чем проверять ответ
+        streamed.getAsyncResult();
+
+        MockHttpServletResponse response = streamed.getResponse();
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", response.getContentAsString());
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByUser_whenStateUnknown_thenResponseStatusIsBadRequest() {
+        mockMvc.perform(get("/bookings/export")
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .param("state", "SOMETIMES"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never()).exportBookings(anyLong(), any(), anyBoolean());
+    }
+}
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.config.ServerClientProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
+
+class BaseClientTest {
+    // совпадает с spring.codec.max-in-memory-size шлюза
+    private static final int MAX_IN_MEMORY_SIZE = 4 * 1024 * 1024;
+
+    private final AtomicReference<ClientRequest> sentRequest = new AtomicReference<>();
+    private final AtomicInteger sentRequests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCache responseCache = new ResponseCache(new ServerClientProperties(), meterRegistry);
+
+    @Test
+    void get_whenServerRespondsOk_thenBodyBytesAndHeadersPassedToGatewayUnchanged() {
+        String body = "[ {\"id\" : 1} ]";
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .header("X-Next-Cursor", "abc")
+                .body(body)
+                .build());
+
+        ResponseEntity<Object> response = client.get("/owner?state={state}", 1L, Map.of("state", "ALL")).block();
+
+        assertThat(sentRequest.get().url().toString(), equalTo("http://localhost:9090/bookings/owner?state=ALL"));
+        assertThat(sentRequest.get().headers().getFirst(USER_REQUEST_HEADER), equalTo("1"));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8), equalTo(body));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor"), equalTo("abc"));
+        assertThat(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING), equalTo(false));
+    }
+
+    @Test
+    void post_whenServerRespondsWithError_thenStatusAndRawBodyReturned() {
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"error\":\"not found\"}")
+                .build());
+
+        ResponseEntity<Object> response = client.post("", 1L, Map.of("name", "item")).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(new String((byte[]) response.getBody(), StandardCharsets.UTF_8),
+                equalTo("{\"error\":\"not found\"}"));
+    }
+
+    @Test
+    void delete_whenServerRespondsWithoutBody_thenEmptyResponseReturned() {
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK).build());
+
+        ResponseEntity<Object> response = client.delete("/1").block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), nullValue());
+        assertThat(sentRequest.get().headers().containsKey(USER_REQUEST_HEADER), equalTo(false));
+    }
+
+    @Test
+    void get_whenIdenticalRequestsInFlight_thenOneServerCallSharedByAllWaiters() {
+        Sinks.One<ClientResponse> serverResponse = Sinks.one();
+        BaseClient client = clientRespondingWith(serverResponse.asMono());
+
+        Mono<ResponseEntity<Object>> first = client.get("/{id}", 1L, Map.of("id", 5)).cache();
+        Mono<ResponseEntity<Object>> second = client.get("/{id}", 1L, Map.of("id", 5)).cache();
+        first.subscribe();
+        second.subscribe();
+        serverResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("{}").build());
+
+        assertThat(sentRequests.get(), equalTo(1));
+        assertThat(first.block().getBody(), sameInstance(second.block().getBody()));
+        assertThat(meterRegistry.get("gateway.client.get.requests").tag("result", "sent").counter().count(),
+                equalTo(1.0));
+        assertThat(meterRegistry.get("gateway.client.get.requests").tag("result", "coalesced").counter().count(),
+                equalTo(1.0));
+    }
+
+    @Test
+    void get_whenRequestsDifferByUserOrCompleted_thenSentSeparately() {
+        Sinks.One<ClientResponse> serverResponse = Sinks.one();
+        BaseClient client = clientRespondingWith(serverResponse.asMono());
+
+        client.get("/{id}", 1L, Map.of("id", 5)).subscribe();
+        client.get("/{id}", 2L, Map.of("id", 5)).subscribe();
+        serverResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("{}").build());
+        client.get("/{id}", 1L, Map.of("id", 5)).block();
+
+        assertThat(sentRequests.get(), equalTo(3));
+    }
+
+    @Test
+    void getShared_whenSameRequestFromDifferentUsersInFlight_thenOneServerCall() {
+        Sinks.One<ClientResponse> serverResponse = Sinks.one();
+        BaseClient client = clientRespondingWith(serverResponse.asMono());
+
+        client.getShared("/search?text={text}", 1L, Map.of("text", "дрель")).subscribe();
+        client.getShared("/search?text={text}", 2L, Map.of("text", "дрель")).subscribe();
+        serverResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK).body("[]").build());
+
+        assertThat(sentRequests.get(), equalTo(1));
+    }
+
+    @Test
+    void getRevalidated_whenServerRespondsNotModified_thenCachedResponseReturned() {
+        Queue<ClientResponse> responses = new ArrayDeque<>(List.of(
+                ClientResponse.create(HttpStatus.OK).header(HttpHeaders.ETAG, "\"v1\"").body("{\"id\":1}").build(),
+                ClientResponse.create(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"v1\"").build()));
+        BaseClient client = clientRespondingWith(Mono.fromSupplier(responses::poll));
+
+        ResponseEntity<Object> first = client.getRevalidated("/1", 1L).block();
+        ResponseEntity<Object> second = client.getRevalidated("/1", 1L).block();
+
+        assertThat(sentRequest.get().headers().getIfNoneMatch(), equalTo(List.of("\"v1\"")));
+        assertThat(second.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(second.getBody(), sameInstance(first.getBody()));
+        assertThat(meterRegistry.get("gateway.client.revalidations").tag("result", "not_modified").counter()
+                .count(), equalTo(1.0));
+    }
+
+    @Test
+    void getRevalidated_whenResourceChanged_thenNewResponseReturnedAndCached() {
+        Queue<ClientResponse> responses = new ArrayDeque<>(List.of(
+                ClientResponse.create(HttpStatus.OK).header(HttpHeaders.ETAG, "\"v1\"").body("{\"v\":1}").build(),
+                ClientResponse.create(HttpStatus.OK).header(HttpHeaders.ETAG, "\"v2\"").body("{\"v\":2}").build(),
+                ClientResponse.create(HttpStatus.NOT_MODIFIED).build()));
+        BaseClient client = clientRespondingWith(Mono.fromSupplier(responses::poll));
+
+        client.getRevalidated("/1", 1L).block();
+        ResponseEntity<Object> changed = client.getRevalidated("/1", 1L).block();
+        ResponseEntity<Object> cached = client.getRevalidated("/1", 1L).block();
+
+        assertThat(new String((byte[]) changed.getBody(), StandardCharsets.UTF_8), equalTo("{\"v\":2}"));
+        assertThat(sentRequest.get().headers().getIfNoneMatch(), equalTo(List.of("\"v2\"")));
+        assertThat(cached.getBody(), sameInstance(changed.getBody()));
+    }
+
+    @Test
+    void getStream_whenServerRespondsWithNdjson_thenLinesPassedWithoutContentLength() {
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .header(HttpHeaders.CONTENT_LENGTH, "20")
+                .body("{\"id\":1}\n{\"id\":2}\n")
+                .build());
+
+        ResponseEntity<Flux<String>> response = client.getStream("/export?state={state}", 1L,
+                Map.of("state", "ALL")).block();
+
+        assertThat(sentRequest.get().url().toString(), equalTo("http://localhost:9090/bookings/export?state=ALL"));
+        assertThat(sentRequest.get().headers().getAccept(),
+                equalTo(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_NDJSON));
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH), equalTo(false));
+        assertThat(response.getBody().collectList().block(), equalTo(List.of("{\"id\":1}\n", "{\"id\":2}\n")));
+    }
+
+    @Test
+    void getStream_whenServerOmitsContentType_thenNdjsonContentTypeSet() {
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK)
+                .body("{\"id\":1}\n")
+                .build());
+
+        ResponseEntity<Flux<String>> response = client.getStream("/export", 1L, null).block();
+
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_NDJSON));
+        assertThat(response.getBody().collectList().block(), equalTo(List.of("{\"id\":1}\n")));
+    }
+
+    @Test
+    void getStream_whenServerRespondsWithError_thenStatusAndBodyPassed() {
+        String body = "{\"error\":\"Пользователь с id 9 не найден\"}";
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+
+        ResponseEntity<Flux<String>> response = client.getStream("/export", 9L, null).block();
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+        assertThat(response.getBody().collectList().block(), equalTo(List.of(body + "\n")));
+    }
+
+    @Test
+    void get_whenServerBodyOverMaxInMemorySize_thenDataBufferLimitExceptionSignalled() {
+        ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_IN_MEMORY_SIZE))
+                .build();
+        BaseClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK, strategies)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("[" + "{\"id\":1},".repeat(MAX_IN_MEMORY_SIZE / 8) + "{\"id\":1}]")
+                .build());
+
+        assertThrows(DataBufferLimitException.class, () -> client.get("/users", null, null).block());
+    }
+
+    private BaseClient clientRespondingWith(ClientResponse response) {
+        return clientRespondingWith(Mono.just(response));
+    }
+
+    private BaseClient clientRespondingWith(Mono<ClientResponse> response) {
+        return new BaseClient(WebClient.builder()
+                .baseUrl("http://localhost:9090/bookings")
+                .exchangeFunction(request -> {
+                    sentRequest.set(request);
+                    sentRequests.incrementAndGet();
+                    return response;
+                })
+                .build(), meterRegistry, responseCache);
+    }
+}
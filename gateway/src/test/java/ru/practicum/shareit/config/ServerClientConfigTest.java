@@ -0,0 +1,112 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.user.UserClient;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "shareit-server.client.max-connections=7")
+@AutoConfigureMockMvc
+class ServerClientConfigTest {
+    private static final String SERVER_BODY = "{ \"id\" : 1 }";
+    private static DisposableServer server;
+
+    @Autowired
+    private ConnectionProvider serverConnectionProvider;
+    @Autowired
+    private UserClient userClient;
+    @Autowired
+    private ItemClient itemClient;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void startServer() {
+        server = HttpServer.create()
+                .port(0)
+                .handle((request, response) -> response.header("Content-Type", "application/json")
+                        .sendString(Mono.just(SERVER_BODY)))
+                .bindNow();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.disposeNow();
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.port());
+    }
+
+    @Test
+    void connectionProvider_whenConfigured_thenLimitsTakenFromProperties() {
+        assertThat(serverConnectionProvider.maxConnections(), equalTo(7));
+    }
+
+    @Test
+    void clients_whenRequestsSentOneAfterAnother_thenSingleKeptAliveConnectionSharedAndMeasured()
+            throws InterruptedException {
+        awaitConnectionsReleased();
+        assertThat(userClient.getUser(1L).block().getStatusCode(), equalTo(HttpStatus.OK));
+        awaitConnectionsReleased();
+        assertThat(itemClient.getItem(1L, 1L).block().getStatusCode(), equalTo(HttpStatus.OK));
+
+        Gauge totalConnections = Metrics.globalRegistry.get("reactor.netty.connection.provider.total.connections")
+                .tag("name", "shareit-server")
+                .gauge();
+        Gauge maxConnections = Metrics.globalRegistry.get("reactor.netty.connection.provider.max.connections")
+                .tag("name", "shareit-server")
+                .gauge();
+        assertThat(totalConnections.value(), equalTo(1.0));
+        assertThat(maxConnections.value(), equalTo(7.0));
+    }
+
+    @Test
+    void getUser_whenServerResponds_thenBodyWrittenToGatewayResponseByteForByte() throws Exception {
+        MvcResult result = mockMvc.perform(get("/users/{userId}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/json"))
+                .andExpect(content().string(SERVER_BODY));
+    }
+
+    /**
+     * Соединение возвращается в пул на event loop уже после того, как ответ получен, поэтому следующий запрос
+     * дожидается его возврата, иначе пул откроет второе соединение.
+     */
+    private static void awaitConnectionsReleased() throws InterruptedException {
+        Gauge activeConnections = Metrics.globalRegistry.find("reactor.netty.connection.provider.active.connections")
+                .tag("name", "shareit-server")
+                .gauge();
+        for (int attempt = 0; activeConnections != null && activeConnections.value() > 0 && attempt < 100; attempt++) {
+            Thread.sleep(10);
+        }
+    }
+}
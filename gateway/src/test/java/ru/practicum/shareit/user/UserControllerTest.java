@@ -6,15 +6,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -32,6 +40,40 @@ class UserControllerTest {
             .email("email@gmail.com")
             .build();
 
+    @Test
+    @SneakyThrows
+    void getUsers_whenServerBodyOverLimit_thenResponseStatusIsBadGateway() {
+        when(userClient.getUsers(0, 10)).thenReturn(Mono.error(new DataBufferLimitException(
+                "Exceeded limit on max bytes to buffer : 4194304")));
+
+        MvcResult result = mockMvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadGateway());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUsers_whenSizeParamOver100_thenResponseStatusIsBadRequest() {
+        mockMvc.perform(get("/users")
+                        .param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(userClient, never()).getUsers(anyInt(), anyInt());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUsers_whenInvalidFrom_thenResponseStatusIsBadRequest() {
+        mockMvc.perform(get("/users")
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(userClient, never()).getUsers(anyInt(), anyInt());
+    }
+
     @Test
     @SneakyThrows
     void updateUser_whenUserIdIsNegative_thenResponseStatusIsBadRequest() {
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
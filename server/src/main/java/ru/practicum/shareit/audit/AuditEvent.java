@@ -0,0 +1,13 @@
+package ru.practicum.shareit.audit;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class AuditEvent {
+    LocalDateTime occurredAt;
+    AuditedEntity entity;
+    Long entityId;
+    AuditAction action;
+}
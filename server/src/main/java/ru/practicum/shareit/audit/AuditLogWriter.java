@@ -0,0 +1,51 @@
+package ru.practicum.shareit.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Фоновая запись событий из {@link AuditTrail} в таблицу audit_log пакетами по {@value #BATCH_SIZE} строк.
+ * Буфер опустошается с интервалом shareit.audit.flush-interval и при остановке сервиса.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditLogWriter {
+    static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL =
+            "insert into audit_log (occurred_at, entity, entity_id, action) values (?, ?, ?, ?)";
+
+    private final AuditTrail auditTrail;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${shareit.audit.flush-interval:PT1S}")
+    public void flush() {
+        List<AuditEvent> batch = auditTrail.drain(BATCH_SIZE);
+        while (!batch.isEmpty()) {
+            write(batch);
+            batch = auditTrail.drain(BATCH_SIZE);
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(event.getOccurredAt()));
+                ps.setString(2, event.getEntity().name());
+                ps.setLong(3, event.getEntityId());
+                ps.setString(4, event.getAction().name());
+            });
+        } catch (DataAccessException e) {
+            log.warn("Не удалось записать {} событий аудита: {}", batch.size(), e.getMessage());
+        }
+    }
+}
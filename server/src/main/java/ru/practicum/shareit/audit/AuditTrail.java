@@ -0,0 +1,120 @@
+package ru.practicum.shareit.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Буфер событий аудита между слушателями сущностей и {@link AuditLogWriter}. Слушатель только добавляет
+ * компактное событие в неблокирующую очередь ограниченного размера; при переполнении событие отбрасывается
+ * и учитывается в метрике shareit.audit.dropped, запрос пользователя при этом не ждёт.
+ * События изменений, записанные внутри транзакции, попадают в очередь только после её фиксации.
+ * Загрузки сущностей не записываются по одной, а подсчитываются (метрика shareit.audit.loads).
+ */
+@Component
+public class AuditTrail {
+    private final Queue<AuditEvent> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<AuditedEntity, LongAdder> loads = new EnumMap<>(AuditedEntity.class);
+    private final int capacity;
+    private final Clock clock;
+
+    public AuditTrail(@Value("${shareit.audit.buffer-capacity:65536}") int capacity, Clock clock,
+                      MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.clock = clock;
+        for (AuditedEntity entity : AuditedEntity.values()) {
+            LongAdder counter = new LongAdder();
+            loads.put(entity, counter);
+            FunctionCounter.builder("shareit.audit.loads", counter, LongAdder::sum)
+                    .description("Загрузки сущностей из базы данных")
+                    .tag("entity", entity.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("shareit.audit.dropped", dropped, LongAdder::sum)
+                .description("События аудита, отброшенные из-за переполнения буфера")
+                .register(meterRegistry);
+        Gauge.builder("shareit.audit.pending", size, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public void record(AuditedEntity entity, Long entityId, AuditAction action) {
+        AuditEvent event = new AuditEvent(LocalDateTime.now(clock), entity, entityId, action);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEvents().add(event);
+        } else {
+            offer(event);
+        }
+    }
+
+    public void countLoad(AuditedEntity entity) {
+        loads.get(entity).increment();
+    }
+
+    public long getLoadCount(AuditedEntity entity) {
+        return loads.get(entity).sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Извлекает из буфера не более maxEvents событий в порядке их поступления.
+     */
+    List<AuditEvent> drain(int maxEvents) {
+        List<AuditEvent> events = new ArrayList<>(Math.min(maxEvents, size.get()));
+        AuditEvent event;
+        while (events.size() < maxEvents && (event = buffer.poll()) != null) {
+            size.decrementAndGet();
+            events.add(event);
+        }
+        return events;
+    }
+
+    private void offer(AuditEvent event) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        buffer.offer(event);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AuditEvent> pendingEvents() {
+        List<AuditEvent> pending = (List<AuditEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<AuditEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditTrail.this);
+                    if (status == STATUS_COMMITTED) {
+                        events.forEach(AuditTrail.this::offer);
+                    }
+                }
+            });
+            pending = events;
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.audit;
+
+public enum AuditedEntity {
+    BOOKING,
+    ITEM,
+    COMMENT,
+    USER
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.audit;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Основа слушателей аудита сущностей. Экземпляры слушателей создаёт Hibernate через контейнер бинов Spring;
+ * {@link AuditTrail} получается при первом событии, а в контекстах без него (срезы @DataJpaTest)
+ * события пропускаются.
+ */
+public abstract class EntityTrailListener {
+    private final AuditedEntity entity;
+    private final ObjectProvider<AuditTrail> auditTrailProvider;
+    private AuditTrail auditTrail;
+
+    protected EntityTrailListener(AuditedEntity entity, ObjectProvider<AuditTrail> auditTrailProvider) {
+        this.entity = entity;
+        this.auditTrailProvider = auditTrailProvider;
+    }
+
+    protected void record(Long entityId, AuditAction action) {
+        AuditTrail trail = auditTrail();
+        if (trail != null && entityId != null) {
+            trail.record(entity, entityId, action);
+        }
+    }
+
+    protected void countLoad() {
+        AuditTrail trail = auditTrail();
+        if (trail != null) {
+            trail.countLoad(entity);
+        }
+    }
+
+    private AuditTrail auditTrail() {
+        if (auditTrail == null) {
+            auditTrail = auditTrailProvider.getIfAvailable();
+        }
+        return auditTrail;
+    }
+}
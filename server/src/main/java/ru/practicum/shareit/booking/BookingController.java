@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,13 +13,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.model.BookingStatusState;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
+import static ru.practicum.shareit.constant.ConstantKeeper.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.constant.ConstantKeeper.TOTAL_COUNT_HEADER;
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 
 @Controller
@@ -25,6 +35,7 @@ import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<BookingDtoToReturn> createBooking(@RequestBody BookingDtoReceived bookingDtoReceived,
@@ -32,6 +43,20 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.createBooking(bookingDtoReceived, userId));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> createBookings(
+            @RequestBody List<BookingDtoReceived> bookingDtosReceived,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        return ResponseEntity.ok(bookingService.createBookings(bookingDtosReceived, userId));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BookingDecisionResultDto>> approveBookings(
+            @RequestBody List<BookingDecisionDto> decisions,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        return ResponseEntity.ok(bookingService.approveBookings(decisions, userId));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDtoToReturn> approveBooking(@PathVariable Long bookingId,
                                                              @RequestParam(value = "approved") Boolean isApproved,
@@ -51,7 +76,10 @@ public class BookingController {
             @RequestParam(defaultValue = "0") Integer from,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestHeader(USER_REQUEST_HEADER) Long userId) {
-        return ResponseEntity.ok(bookingService.getAllBookingsByUser(userId, state, from, size));
+        List<BookingDtoToReturn> bookings = bookingService.getAllBookingsByUser(userId, state, from, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(bookingService.countBookingsByUser(userId, state)))
+                .body(bookings);
     }
 
     @GetMapping("/owner")
@@ -60,6 +88,56 @@ public class BookingController {
             @RequestParam(defaultValue = "0") Integer from,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
-        return ResponseEntity.ok(bookingService.getAllBookingsByOwner(ownerId, state, from, size));
+        List<BookingDtoToReturn> bookings = bookingService.getAllBookingsByOwner(ownerId, state, from, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(bookingService.countBookingsByOwner(ownerId, state)))
+                .body(bookings);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingDtoToReturn>> getBookingsSliceByUser(
+            @RequestParam(defaultValue = "ALL") BookingStatusState state,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestHeader(USER_REQUEST_HEADER) Long userId) {
+        return toSliceResponse(bookingService.getBookingsSliceByUser(userId, state, cursor, size));
+    }
+
+    @GetMapping(value = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingDtoToReturn>> getBookingsSliceByOwner(
+            @RequestParam(defaultValue = "ALL") BookingStatusState state,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestHeader(USER_REQUEST_HEADER) Long ownerId) {
+        return toSliceResponse(bookingService.getBookingsSliceByOwner(ownerId, state, cursor, size));
+    }
+
+    /**
+     * Вся история бронирований пользователя в формате NDJSON, без постраничной разбивки.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBookingsByUser(@RequestParam(defaultValue = "ALL") BookingStatusState state,
+                                     @RequestHeader(USER_REQUEST_HEADER) Long userId,
+                                     HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+        bookingService.exportBookingsByUser(userId, state, writer::write);
+        writer.finish();
+    }
+
+    @GetMapping(value = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportBookingsByOwner(@RequestParam(defaultValue = "ALL") BookingStatusState state,
+                                      @RequestHeader(USER_REQUEST_HEADER) Long ownerId,
+                                      HttpServletResponse response) throws IOException {
+        NdjsonWriter writer = new NdjsonWriter(objectMapper, response);
+        bookingService.exportBookingsByOwner(ownerId, state, writer::write);
+        writer.finish();
+    }
+
+    private static ResponseEntity<List<BookingDtoToReturn>> toSliceResponse(BookingSliceDto slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getBookings());
     }
 }
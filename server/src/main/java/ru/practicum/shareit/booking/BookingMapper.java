@@ -5,13 +5,18 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserForBookingDto;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +34,23 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDtoToReturn toBookingDtoToReturn(BookingSnapshot snapshot) {
+        return BookingDtoToReturn.builder()
+                .id(snapshot.getId())
+                .start(snapshot.getStart())
+                .end(snapshot.getEnd())
+                .status(snapshot.getStatus())
+                .booker(new UserForBookingDto(snapshot.getBookerId()))
+                .item(new ItemForBookingDto(snapshot.getItemId(), snapshot.getItemName()))
+                .build();
+    }
+
+    public static BookingSnapshot toBookingSnapshot(Booking booking) {
+        return new BookingSnapshot(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getBooker().getId(), booking.getItem().getId(), booking.getItem().getName(),
+                booking.getItem().getOwner().getId());
+    }
+
     public static List<BookingDtoToReturn> toBookingDtoToReturn(Iterable<Booking> bookings) {
         List<BookingDtoToReturn> dtos = new ArrayList<>();
         for (Booking booking : bookings) {
@@ -44,13 +66,14 @@ public class BookingMapper {
                 .build();
     }
 
-    public static Booking toBooking(BookingDtoReceived bookingDtoReceived, Item item, User booker) {
+    public static Booking toBooking(BookingDtoReceived bookingDtoReceived, Item item, User booker, LocalDateTime now) {
         return Booking.builder()
                 .start(bookingDtoReceived.getStart())
                 .end(bookingDtoReceived.getEnd())
                 .item(item)
                 .booker(booker)
                 .status(BookingStatus.WAITING)
+                .phase(BookingPhase.of(bookingDtoReceived.getStart(), bookingDtoReceived.getEnd(), now))
                 .build();
     }
 }
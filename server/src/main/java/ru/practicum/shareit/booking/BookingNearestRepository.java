@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.NearestBooking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingNearestRepository {
+    List<NearestBooking> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now);
+}
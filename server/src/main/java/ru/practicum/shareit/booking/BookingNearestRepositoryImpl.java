@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.dto.NearestBooking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Последнее и следующее подтверждённые бронирования для набора вещей одним запросом. Бронирования каждой вещи
+ * делятся на начавшиеся и будущие, внутри каждой группы оконная функция row_number() выбирает ближайшее
+ * к текущему моменту, поэтому из базы возвращается не больше двух строк на вещь, сколько бы бронирований
+ * ни было у вещи в прошлом. При равных датах начала выбирается бронирование с меньшим id.
+ */
+public class BookingNearestRepositoryImpl implements BookingNearestRepository {
+    private static final String LAST_AND_NEXT_APPROVED = "select ranked.item_id, ranked.booking_id, " +
+            "ranked.booker_id, ranked.start_date, ranked.is_next " +
+            "from (select b.item_id, b.booking_id, b.booker_id, b.start_date, " +
+            "case when b.start_date > :now then 1 else 0 end as is_next, " +
+            "row_number() over (partition by b.item_id, case when b.start_date > :now then 1 else 0 end " +
+            "order by case when b.start_date > :now then b.start_date end, " +
+            "case when b.start_date <= :now then b.start_date end desc, b.booking_id) as rn " +
+            "from bookings b " +
+            "where b.item_id in (:itemIds) and b.status = :status) ranked " +
+            "where ranked.rn = 1";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<NearestBooking> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = em.createNativeQuery(LAST_AND_NEXT_APPROVED)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .setParameter("status", BookingStatus.APPROVED.name())
+                .getResultList();
+        return rows.stream()
+                .map(row -> new NearestBooking(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue(), toLocalDateTime(row[3]), ((Number) row[4]).intValue() == 1))
+                .collect(Collectors.toList());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
+    }
+}
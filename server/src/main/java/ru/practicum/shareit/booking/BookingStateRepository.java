@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookingStateRepository {
+    List<BookingSnapshot> findPageByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now,
+                                             Pageable pageable);
+
+    List<BookingSnapshot> findPageByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now,
+                                                Pageable pageable);
+
+    Slice<BookingSnapshot> findSliceByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now,
+                                               BookingCursor after, int size);
+
+    Slice<BookingSnapshot> findSliceByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now,
+                                                  BookingCursor after, int size);
+
+    Stream<BookingSnapshot> streamByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now);
+
+    Stream<BookingSnapshot> streamByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now);
+
+    long countByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now);
+
+    long countByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now);
+}
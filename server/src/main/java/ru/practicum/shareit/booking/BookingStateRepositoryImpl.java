@@ -0,0 +1,182 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.jpa.QueryHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Выборки бронирований пользователя или вещей владельца по состоянию state в порядке убывания (start, booking_id):
+ * страница по смещению (findPage*), страница по ключу (findSlice*: следующая страница начинается строго после
+ * последней записи предыдущей, count-запрос не выполняется), полная выборка (stream*, читается курсором порциями
+ * по {@value #STREAM_FETCH_SIZE} строк и должна закрываться после чтения) и число бронирований (count*).
+ * Выбираются только поля {@link BookingSnapshot}: сущности не создаются и в контексте персистентности не хранятся.
+ * <p>
+ * Сохранённая фаза (bookings.phase) может отставать от времени до прохода BookingPhaseSweeper, поэтому состояния
+ * CURRENT, PAST и FUTURE проверяются по start и end относительно now, а фаза лишь сужает поиск по индексу:
+ * бронирование ещё с прежней фазой, границу которой уже прошло, попадает в новое состояние.
+ */
+public class BookingStateRepositoryImpl implements BookingStateRepository {
+    static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<BookingSnapshot> findPageByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now,
+                                                    Pageable pageable) {
+        return findPage(false, bookerId, state, now, pageable);
+    }
+
+    @Override
+    public List<BookingSnapshot> findPageByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now,
+                                                       Pageable pageable) {
+        return findPage(true, ownerId, state, now, pageable);
+    }
+
+    @Override
+    public Slice<BookingSnapshot> findSliceByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now,
+                                                      BookingCursor after, int size) {
+        return findSlice(false, bookerId, state, now, after, size);
+    }
+
+    @Override
+    public Slice<BookingSnapshot> findSliceByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now,
+                                                         BookingCursor after, int size) {
+        return findSlice(true, ownerId, state, now, after, size);
+    }
+
+    @Override
+    public Stream<BookingSnapshot> streamByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now) {
+        return stream(createQuery(false, bookerId, state, now, null));
+    }
+
+    @Override
+    public Stream<BookingSnapshot> streamByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now) {
+        return stream(createQuery(true, ownerId, state, now, null));
+    }
+
+    @Override
+    public long countByBookerId(Long bookerId, BookingStatusState state, LocalDateTime now) {
+        return count(false, bookerId, state, now);
+    }
+
+    @Override
+    public long countByItemOwnerId(Long ownerId, BookingStatusState state, LocalDateTime now) {
+        return count(true, ownerId, state, now);
+    }
+
+    private List<BookingSnapshot> findPage(boolean byOwner, Long userId, BookingStatusState state,
+                                           LocalDateTime now, Pageable pageable) {
+        return em.createQuery(createQuery(byOwner, userId, state, now, null))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    private Slice<BookingSnapshot> findSlice(boolean byOwner, Long userId, BookingStatusState state,
+                                             LocalDateTime now, BookingCursor after, int size) {
+        List<BookingSnapshot> content = em.createQuery(createQuery(byOwner, userId, state, now, after))
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    private Stream<BookingSnapshot> stream(CriteriaQuery<BookingSnapshot> query) {
+        return em.createQuery(query)
+                .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .getResultStream();
+    }
+
+    private long count(boolean byOwner, Long userId, BookingStatusState state, LocalDateTime now) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Path<Long> userIdPath = byOwner
+                ? booking.<Booking, Item>join("item").get("owner").get("id")
+                : booking.get("booker").get("id");
+        query.select(cb.count(booking))
+                .where(predicates(cb, booking, userIdPath, userId, state, now, null));
+        return em.createQuery(query).getSingleResult();
+    }
+
+    private CriteriaQuery<BookingSnapshot> createQuery(boolean byOwner, Long userId, BookingStatusState state,
+                                                       LocalDateTime now, BookingCursor after) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BookingSnapshot> query = cb.createQuery(BookingSnapshot.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Path<Long> userIdPath = byOwner ? item.get("owner").get("id") : booking.get("booker").get("id");
+        query.select(cb.construct(BookingSnapshot.class, booking.get("id"), booking.get("start"),
+                        booking.get("end"), booking.get("status"), booking.get("booker").get("id"), item.get("id"),
+                        item.get("name"), item.get("owner").get("id")))
+                .where(predicates(cb, booking, userIdPath, userId, state, now, after))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+        return query;
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Booking> booking, Path<Long> userIdPath,
+                                          Long userId, BookingStatusState state, LocalDateTime now,
+                                          BookingCursor after) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(userIdPath, userId));
+        Path<BookingPhase> phase = booking.get("phase");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        switch (state) {
+            case CURRENT:
+                predicates.add(phase.in(BookingPhase.FUTURE, BookingPhase.CURRENT));
+                predicates.add(cb.lessThanOrEqualTo(start, now));
+                predicates.add(cb.greaterThanOrEqualTo(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.or(cb.equal(phase, BookingPhase.PAST),
+                        cb.and(phase.in(BookingPhase.FUTURE, BookingPhase.CURRENT), cb.lessThan(end, now))));
+                break;
+            case FUTURE:
+                predicates.add(cb.equal(phase, BookingPhase.FUTURE));
+                predicates.add(cb.greaterThan(start, now));
+                break;
+            case WAITING:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+                break;
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+                break;
+            default:
+                break;
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()),
+                            cb.lessThan(booking.get("id"), after.getBookingId()))));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
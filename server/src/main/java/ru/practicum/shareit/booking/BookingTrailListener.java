@@ -1,38 +1,55 @@
 package ru.practicum.shareit.booking;
 
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+import ru.practicum.shareit.audit.EntityTrailListener;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.clock.RequestClock;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
 import javax.persistence.PrePersist;
-import javax.persistence.PreRemove;
-import javax.persistence.PreUpdate;
 
-@Slf4j
-public class BookingTrailListener {
+public class BookingTrailListener extends EntityTrailListener {
+    private final ObjectProvider<RequestClock> requestClock;
+
+    public BookingTrailListener(ObjectProvider<AuditTrail> auditTrail, ObjectProvider<RequestClock> requestClock) {
+        super(AuditedEntity.BOOKING, auditTrail);
+        this.requestClock = requestClock;
+    }
+
+    /**
+     * Фаза бронирования, сохранённого без неё (например, тестовыми данными), вычисляется по часам запроса.
+     */
     @PrePersist
-    @PreUpdate
-    @PreRemove
-    protected void beforeAnyUpdate(Booking booking) {
-        if (booking.getId() == null || booking.getId() == 0) {
-            log.info("[BOOKING AUDIT] About to add a booking to database");
-        } else {
-            log.info("[BOOKING AUDIT] About to update/delete booking: {}", booking.getId());
+    protected void beforePersist(Booking booking) {
+        if (booking.getPhase() == null) {
+            booking.setPhase(BookingPhase.of(booking.getStart(), booking.getEnd(), requestClock.getObject().now()));
         }
     }
 
     @PostPersist
+    protected void afterPersist(Booking booking) {
+        record(booking.getId(), AuditAction.CREATE);
+    }
+
     @PostUpdate
+    protected void afterUpdate(Booking booking) {
+        record(booking.getId(), AuditAction.UPDATE);
+    }
+
     @PostRemove
-    protected void afterAnyUpdate(Booking booking) {
-        log.info("[BOOKING AUDIT] add/update/delete complete for booking: {}", booking.getId());
+    protected void afterRemove(Booking booking) {
+        record(booking.getId(), AuditAction.DELETE);
     }
 
     @PostLoad
     protected void afterLoad(Booking booking) {
-        log.info("[BOOKING AUDIT] booking loaded from database: {}", booking.getId());
+        countLoad();
     }
 }
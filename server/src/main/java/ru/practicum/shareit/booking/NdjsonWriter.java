@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Запись объектов в тело ответа в формате NDJSON - по одному JSON-объекту в строке. Строки отправляются клиенту
+ * каждые {@value #FLUSH_EVERY} записей, тело ответа целиком в памяти не собирается.
+ * Заголовки ответа выставляются при первой записи: исключение, выброшенное до неё, обрабатывается ErrorHandler
+ * как обычно.
+ */
+class NdjsonWriter {
+    static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final HttpServletResponse response;
+    private JsonGenerator generator;
+    private int unflushed;
+
+    NdjsonWriter(ObjectMapper objectMapper, HttpServletResponse response) {
+        this.objectMapper = objectMapper;
+        this.response = response;
+    }
+
+    void write(Object value) {
+        try {
+            if (generator == null) {
+                open();
+            }
+            generator.writeObject(value);
+            generator.writeRaw('\n');
+            if (++unflushed == FLUSH_EVERY) {
+                generator.flush();
+                unflushed = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void finish() throws IOException {
+        if (generator == null) {
+            open();
+        }
+        generator.close();
+    }
+
+    private void open() throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        generator = objectMapper.createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+    }
+}
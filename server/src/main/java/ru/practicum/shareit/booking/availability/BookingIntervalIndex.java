@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Индекс занятости вещей: для каждой вещи хранит интервалы [start, end) бронирований в статусах
+ * WAITING и APPROVED, которые ещё не завершились. Заполняется из таблицы bookings при старте приложения
+ * и обновляется сервисом бронирований при создании, подтверждении и отклонении. Завершившиеся бронирования
+ * удаляются {@link #pruneEndedBy(LocalDateTime)} при каждом проходе BookingPhaseSweeper.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    public static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.WAITING,
+            BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervalTree> trees = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        trees.clear();
+        List<BookingSlot> slots = bookingRepository.findSlotsByStatusInAndEndAfter(BLOCKING_STATUSES,
+                LocalDateTime.now());
+        slots.forEach(this::add);
+        log.info("Индекс занятости вещей заполнен: {} бронирований для {} вещей", slots.size(), trees.size());
+    }
+
+    public Optional<BookingSlot> findOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return findOverlap(itemId, start, end, null);
+    }
+
+    public Optional<BookingSlot> findOverlap(Long itemId, LocalDateTime start, LocalDateTime end,
+                                             Long excludedBookingId) {
+        ItemIntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return Optional.empty();
+        }
+        return tree.findOverlap(start, end, excludedBookingId);
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return findOverlap(itemId, start, end).isEmpty();
+    }
+
+    public boolean contains(Long itemId, Long bookingId) {
+        ItemIntervalTree tree = trees.get(itemId);
+        return tree != null && tree.contains(bookingId);
+    }
+
+    /**
+     * Занимает интервал бронирования. Если вызов происходит внутри транзакции, при её откате интервал освобождается.
+     */
+    public void reserve(Booking booking) {
+        reserveSlot(toSlot(booking));
+    }
+
+    public void reserveSlot(BookingSlot slot) {
+        add(slot);
+        onRollback(() -> remove(slot.getItemId(), slot.getBookingId()));
+    }
+
+    /**
+     * Освобождает интервал бронирования. Если вызов происходит внутри транзакции, при её откате интервал
+     * возвращается в индекс.
+     */
+    public void release(Booking booking) {
+        releaseSlot(toSlot(booking));
+    }
+
+    public void releaseSlot(BookingSlot slot) {
+        if (remove(slot.getItemId(), slot.getBookingId())) {
+            onRollback(() -> add(slot));
+        }
+    }
+
+    /**
+     * Удаляет интервалы, закончившиеся не позже now, и деревья вещей, оставшиеся пустыми.
+     */
+    public int pruneEndedBy(LocalDateTime now) {
+        AtomicInteger pruned = new AtomicInteger();
+        trees.keySet().forEach(itemId -> trees.computeIfPresent(itemId, (id, tree) -> {
+            pruned.addAndGet(tree.removeEndedBy(now));
+            return tree.size() == 0 ? null : tree;
+        }));
+        return pruned.get();
+    }
+
+    private void add(BookingSlot slot) {
+        trees.compute(slot.getItemId(), (id, tree) -> {
+            ItemIntervalTree target = tree == null ? new ItemIntervalTree() : tree;
+            target.add(slot);
+            return target;
+        });
+    }
+
+    private boolean remove(Long itemId, Long bookingId) {
+        ItemIntervalTree tree = trees.get(itemId);
+        return tree != null && tree.remove(bookingId);
+    }
+
+    private static BookingSlot toSlot(Booking booking) {
+        return new BookingSlot(booking.getId(), booking.getItem().getId(), booking.getStart(), booking.getEnd());
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingSlot {
+    Long bookingId;
+    Long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
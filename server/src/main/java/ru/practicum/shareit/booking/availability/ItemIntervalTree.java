@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Интервальное дерево бронирований одной вещи: декартово дерево по (start, bookingId),
+ * каждый узел хранит максимальный end своего поддерева. Поиск пересечения, вставка и удаление - O(log n).
+ */
+class ItemIntervalTree {
+    private final Map<Long, BookingSlot> slotsById = new HashMap<>();
+    private Node root;
+
+    synchronized void add(BookingSlot slot) {
+        BookingSlot previous = slotsById.put(slot.getBookingId(), slot);
+        if (previous != null) {
+            root = remove(root, previous);
+        }
+        root = insert(root, new Node(slot));
+    }
+
+    synchronized boolean remove(Long bookingId) {
+        BookingSlot slot = slotsById.remove(bookingId);
+        if (slot == null) {
+            return false;
+        }
+        root = remove(root, slot);
+        return true;
+    }
+
+    /**
+     * Удаляет бронирования, закончившиеся не позже now: они уже не могут пересечься с новыми.
+     */
+    synchronized int removeEndedBy(LocalDateTime now) {
+        List<BookingSlot> ended = slotsById.values().stream()
+                .filter(slot -> !slot.getEnd().isAfter(now))
+                .collect(Collectors.toList());
+        for (BookingSlot slot : ended) {
+            slotsById.remove(slot.getBookingId());
+            root = remove(root, slot);
+        }
+        return ended.size();
+    }
+
+    synchronized boolean contains(Long bookingId) {
+        return slotsById.containsKey(bookingId);
+    }
+
+    synchronized Optional<BookingSlot> findOverlap(LocalDateTime start, LocalDateTime end, Long excludedBookingId) {
+        return Optional.ofNullable(findOverlap(root, start, end, excludedBookingId));
+    }
+
+    synchronized int size() {
+        return slotsById.size();
+    }
+
+    private static BookingSlot findOverlap(Node node, LocalDateTime start, LocalDateTime end, Long excludedBookingId) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return null;
+        }
+        BookingSlot found = findOverlap(node.left, start, end, excludedBookingId);
+        if (found != null) {
+            return found;
+        }
+        if (!node.slot.getStart().isBefore(end)) {
+            return null;
+        }
+        if (node.slot.overlaps(start, end) && !node.slot.getBookingId().equals(excludedBookingId)) {
+            return node.slot;
+        }
+        return findOverlap(node.right, start, end, excludedBookingId);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (newNode.priority > node.priority) {
+            Node[] parts = split(node, newNode.slot);
+            newNode.left = parts[0];
+            newNode.right = parts[1];
+            return newNode.update();
+        }
+        if (compare(newNode.slot, node.slot) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return node.update();
+    }
+
+    private static Node remove(Node node, BookingSlot slot) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(slot, node.slot);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = remove(node.left, slot);
+        } else {
+            node.right = remove(node.right, slot);
+        }
+        return node.update();
+    }
+
+    private static Node[] split(Node node, BookingSlot key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(node.slot, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            return new Node[]{node.update(), parts[1]};
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        return new Node[]{parts[0], node.update()};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static int compare(BookingSlot first, BookingSlot second) {
+        int cmp = first.getStart().compareTo(second.getStart());
+        return cmp != 0 ? cmp : first.getBookingId().compareTo(second.getBookingId());
+    }
+
+    private static final class Node {
+        private final BookingSlot slot;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(BookingSlot slot) {
+            this.slot = slot;
+            this.maxEnd = slot.getEnd();
+        }
+
+        private Node update() {
+            maxEnd = slot.getEnd();
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+            return this;
+        }
+    }
+}
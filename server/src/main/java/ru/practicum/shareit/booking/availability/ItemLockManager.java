@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConcurrentBookingException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Блокировки записи бронирований по id вещи. Используется фиксированный массив блокировок (полос),
+ * вещь попадает в полосу по хешу id: операции над одной вещью выполняются последовательно,
+ * над разными вещами - параллельно (за исключением коллизий полос).
+ * Блокировка удерживается до завершения текущей транзакции, чтобы конкурирующая операция увидела
+ * уже зафиксированные изменения.
+ */
+@Slf4j
+@Component
+public class ItemLockManager {
+    private final Stripe[] stripes;
+    private final int mask;
+    private final long timeoutNanos;
+
+    public ItemLockManager(@Value("${shareit.booking.lock.stripes:64}") int stripeCount,
+                           @Value("${shareit.booking.lock.timeout:5s}") Duration timeout,
+                           MeterRegistry meterRegistry) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        this.timeoutNanos = timeout.toNanos();
+        for (int i = 0; i < size; i++) {
+            Stripe stripe = new Stripe();
+            stripes[i] = stripe;
+            String index = String.valueOf(i);
+            FunctionCounter.builder("shareit.booking.lock.acquisitions", stripe, s -> s.acquisitions.sum())
+                    .tag("stripe", index)
+                    .register(meterRegistry);
+            FunctionCounter.builder("shareit.booking.lock.contended", stripe, s -> s.contended.sum())
+                    .description("Захваты блокировки, которым пришлось ждать другой поток")
+                    .tag("stripe", index)
+                    .register(meterRegistry);
+            FunctionCounter.builder("shareit.booking.lock.wait", stripe,
+                            s -> TimeUnit.NANOSECONDS.toMillis(s.waitNanos.sum()))
+                    .baseUnit("milliseconds")
+                    .tag("stripe", index)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Захватывает блокировку вещи до завершения (commit или rollback) текущей транзакции.
+     */
+    public void lockForTransaction(Long itemId) {
+        checkTransaction();
+        unlockAfterCompletion(acquire(stripeOf(itemId), itemId));
+    }
+
+    /**
+     * Захватывает блокировки нескольких вещей до завершения текущей транзакции. Каждая полоса захватывается
+     * один раз, полосы - в порядке возрастания номера, поэтому транзакции с пересекающимися наборами вещей
+     * не ждут друг друга по кругу.
+     */
+    public void lockAllForTransaction(Collection<Long> itemIds) {
+        checkTransaction();
+        SortedMap<Integer, Long> itemIdsByStripe = new TreeMap<>();
+        for (Long itemId : itemIds) {
+            itemIdsByStripe.putIfAbsent(stripeOf(itemId), itemId);
+        }
+        itemIdsByStripe.forEach((stripe, itemId) -> unlockAfterCompletion(acquire(stripe, itemId)));
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    public long getContendedCount(int stripe) {
+        return stripes[stripe].contended.sum();
+    }
+
+    public long getAcquisitionCount(int stripe) {
+        return stripes[stripe].acquisitions.sum();
+    }
+
+    int stripeOf(Long itemId) {
+        int hash = itemId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static void checkTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+    }
+
+    private static void unlockAfterCompletion(ReentrantLock lock) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    private ReentrantLock acquire(int stripeIndex, Long itemId) {
+        Stripe stripe = stripes[stripeIndex];
+        stripe.acquisitions.increment();
+        if (stripe.lock.tryLock()) {
+            return stripe.lock;
+        }
+        stripe.contended.increment();
+        long startedAt = System.nanoTime();
+        try {
+            if (!stripe.lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                log.warn("Не удалось получить блокировку вещи {} за {} мс", itemId,
+                        TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+                throw new ConcurrentBookingException(String.format("Вещь с id %d сейчас бронируется другим " +
+                        "пользователем, повторите попытку позже", itemId));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentBookingException(String.format("Ожидание блокировки вещи с id %d прервано", itemId));
+        } finally {
+            stripe.waitNanos.add(System.nanoTime() - startedAt);
+        }
+        return stripe.lock;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder contended = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат создания одного бронирования из пакета: созданное бронирование либо причина отказа.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+public class BookingBatchResultDto {
+    private BookingDtoToReturn booking;
+    private String error;
+
+    public BookingBatchResultDto(BookingDtoToReturn booking, String error) {
+        this.booking = booking;
+        this.error = error;
+    }
+
+    public static BookingBatchResultDto created(BookingDtoToReturn booking) {
+        return new BookingBatchResultDto(booking, null);
+    }
+
+    public static BookingBatchResultDto rejected(String error) {
+        return new BookingBatchResultDto(null, error);
+    }
+}
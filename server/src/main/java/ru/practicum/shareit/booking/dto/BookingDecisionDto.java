@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Решение владельца по одному бронированию: подтвердить (approved = true) или отклонить.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+public class BookingDecisionDto {
+    private Long bookingId;
+    private Boolean approved;
+
+    public BookingDecisionDto(Long bookingId, Boolean approved) {
+        this.bookingId = bookingId;
+        this.approved = approved;
+    }
+}
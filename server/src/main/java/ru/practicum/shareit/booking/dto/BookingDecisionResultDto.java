@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Результат решения по одному бронированию: новый статус бронирования либо причина, по которой решение
+ * не применено.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+public class BookingDecisionResultDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+
+    public BookingDecisionResultDto(Long bookingId, BookingStatus status, String error) {
+        this.bookingId = bookingId;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BookingDecisionResultDto applied(Long bookingId, BookingStatus status) {
+        return new BookingDecisionResultDto(bookingId, status, null);
+    }
+
+    public static BookingDecisionResultDto rejected(Long bookingId, String error) {
+        return new BookingDecisionResultDto(bookingId, null, error);
+    }
+}
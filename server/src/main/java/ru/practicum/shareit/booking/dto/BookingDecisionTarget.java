@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.availability.BookingSlot;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Данные бронирования, достаточные для проверки решения владельца без загрузки сущностей.
+ */
+@Value
+public class BookingDecisionTarget {
+    Long bookingId;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    BookingStatus status;
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public BookingSlot toSlot() {
+        return new BookingSlot(bookingId, itemId, start, end);
+    }
+}
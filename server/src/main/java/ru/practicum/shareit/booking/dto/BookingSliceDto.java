@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+public class BookingSliceDto {
+    private List<BookingDtoToReturn> bookings;
+    private String nextCursor;
+
+    public BookingSliceDto(List<BookingDtoToReturn> bookings, String nextCursor) {
+        this.bookings = bookings;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Не зависящее от пользователя представление бронирования, которое хранится в кэше bookings.
+ * Проверка доступа (автор бронирования или владелец вещи) выполняется при каждом запросе.
+ */
+@Value
+public class BookingSnapshot {
+    Long id;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+    Long bookerId;
+    Long itemId;
+    String itemName;
+    Long ownerId;
+
+    public boolean isVisibleTo(Long userId) {
+        return bookerId.equals(userId) || ownerId.equals(userId);
+    }
+}
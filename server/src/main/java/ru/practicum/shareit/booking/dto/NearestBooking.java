@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ближайшее к текущему моменту подтверждённое бронирование вещи: последнее начавшееся (next = false)
+ * или ближайшее будущее (next = true).
+ */
+@Value
+public class NearestBooking {
+    Long itemId;
+    Long bookingId;
+    Long bookerId;
+    LocalDateTime start;
+    boolean next;
+}
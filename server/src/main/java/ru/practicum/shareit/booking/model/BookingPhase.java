@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Положение бронирования относительно текущего времени. Хранится в bookings.phase, чтобы фильтры
+ * CURRENT, PAST и FUTURE сужали поиск по индексу, и обновляется задачей BookingPhaseSweeper. Между проходами
+ * задачи фаза может отставать от времени, поэтому фильтры дополнительно проверяют start и end.
+ */
+public enum BookingPhase {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingPhase of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (end.isBefore(now)) {
+            return PAST;
+        }
+        return start.isAfter(now) ? FUTURE : CURRENT;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.clock.RequestClock;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Число бронирований пользователя и бронирований вещей владельца в заданном состоянии. Подсчёт выполняется одним
+ * запросом count с теми же условиями, что и выборка списка (BookingStateRepository), без выборки строк.
+ * Кэшируются только состояния из CACHED_STATES, число которых меняется лишь при изменении бронирования:
+ * результаты хранятся в кэшах bookerBookingCounts и ownerBookingCounts с ключом (id пользователя, состояние)
+ * и сбрасываются CacheEvictionListener. Число бронирований в состояниях CURRENT, PAST и FUTURE зависит от времени
+ * запроса и подсчитывается при каждом вызове, поэтому всегда совпадает со списком.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingCounter {
+    public static final Set<BookingStatusState> CACHED_STATES = EnumSet.of(BookingStatusState.ALL,
+            BookingStatusState.WAITING, BookingStatusState.REJECTED);
+
+    private final BookingRepository bookingRepository;
+    private final RequestClock requestClock;
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    @Cacheable(cacheNames = "bookerBookingCounts", condition = "T(ru.practicum.shareit.booking.service.BookingCounter)"
+            + ".CACHED_STATES.contains(#p1)")
+    public long countByBooker(Long bookerId, BookingStatusState state) {
+        return bookingRepository.countByBookerId(bookerId, state, requestClock.now());
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    @Cacheable(cacheNames = "ownerBookingCounts", condition = "T(ru.practicum.shareit.booking.service.BookingCounter)"
+            + ".CACHED_STATES.contains(#p1)")
+    public long countByOwner(Long ownerId, BookingStatusState state) {
+        return bookingRepository.countByItemOwnerId(ownerId, state, requestClock.now());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Переводит бронирования в следующую фазу (FUTURE -> CURRENT -> PAST), когда наступает их начало или конец.
+ * Между проходами (shareit.booking.phase.sweep-interval) фаза может отставать от времени: фильтры CURRENT, PAST
+ * и FUTURE учитывают это сами, а задача лишь не даёт отставшим строкам накапливаться. Первый проход выполняется
+ * при запуске, чтобы догнать время, прошедшее, пока сервис был остановлен. Заодно из индекса занятости
+ * удаляются завершившиеся бронирования, чтобы он не рос всё время работы сервиса.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingPhaseSweeper {
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final Clock clock;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.phase.sweep-interval:PT1M}")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int past = bookingRepository.updatePhaseToPastByEndBefore(now);
+        int current = bookingRepository.updatePhaseToCurrentByStartNotAfter(now);
+        int pruned = bookingIntervalIndex.pruneEndedBy(now);
+        if (past > 0 || current > 0 || pruned > 0) {
+            log.debug("Фаза бронирований обновлена: завершились {}, начались {}, удалено из индекса занятости {}",
+                    past, current, pruned);
+        }
+    }
+}
@@ -1,19 +1,40 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
 import ru.practicum.shareit.booking.model.BookingStatusState;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDtoToReturn createBooking(BookingDtoReceived bookingDtoReceived, Long userId);
 
+    List<BookingBatchResultDto> createBookings(List<BookingDtoReceived> bookingDtosReceived, Long userId);
+
     BookingDtoToReturn approveBooking(Long bookingId, Boolean isApproved, Long userId);
 
+    List<BookingDecisionResultDto> approveBookings(List<BookingDecisionDto> decisions, Long userId);
+
     BookingDtoToReturn getBookingById(Long bookingId, Long userId);
 
     List<BookingDtoToReturn> getAllBookingsByUser(Long userId, BookingStatusState state, Integer from, Integer size);
 
     List<BookingDtoToReturn> getAllBookingsByOwner(Long ownerId, BookingStatusState state, Integer from, Integer size);
+
+    long countBookingsByUser(Long userId, BookingStatusState state);
+
+    long countBookingsByOwner(Long ownerId, BookingStatusState state);
+
+    BookingSliceDto getBookingsSliceByUser(Long userId, BookingStatusState state, String cursor, Integer size);
+
+    BookingSliceDto getBookingsSliceByOwner(Long ownerId, BookingStatusState state, String cursor, Integer size);
+
+    void exportBookingsByUser(Long userId, BookingStatusState state, Consumer<BookingDtoToReturn> action);
+
+    void exportBookingsByOwner(Long ownerId, BookingStatusState state, Consumer<BookingDtoToReturn> action);
 }
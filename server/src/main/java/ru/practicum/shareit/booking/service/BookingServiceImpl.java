@@ -1,164 +1,407 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.availability.ItemLockManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionTarget;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.event.BookingChangedEvent;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.StatusException;
 import ru.practicum.shareit.exception.UnavailableItemException;
+import ru.practicum.shareit.item.ItemIdRegistry;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSummaryProjection;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceVerifier userExistenceVerifier;
     private final ItemRepository itemRepository;
+    private final ItemIdRegistry itemIdRegistry;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockManager itemLockManager;
+    private final BookingSnapshotLoader bookingSnapshotLoader;
+    private final BookingCounter bookingCounter;
+    private final ItemSummaryProjection itemSummaryProjection;
+    private final RequestClock requestClock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditTrail auditTrail;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     public BookingDtoToReturn createBooking(BookingDtoReceived bookingDtoReceived, Long userId) {
+        checkItemBookable(bookingDtoReceived.getItemId());
+        itemLockManager.lockForTransaction(bookingDtoReceived.getItemId());
         Item item = itemRepository.findById(bookingDtoReceived.getItemId())
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Вещь с id %d не найдена",
                         bookingDtoReceived.getItemId())));
-        if (!item.getAvailable()) {
-            throw new UnavailableItemException("Вещь недоступна для бронирования");
-        }
-        if (Objects.equals(userId, item.getOwner().getId())) {
-            throw new EntityNotFoundException("Владелец не может бронировать свои вещи");
-        }
-        User booker = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDtoReceived, item, booker));
+        checkBookable(item, userId);
+        userExistenceVerifier.verify(userId);
+        User booker = userRepository.getReferenceById(userId);
+        checkOverlap(item.getId(), bookingDtoReceived.getStart(), bookingDtoReceived.getEnd(), null);
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDtoReceived, item, booker,
+                requestClock.now()));
+        bookingIntervalIndex.reserve(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), item.getId(), userId,
+                item.getOwner().getId()));
         return BookingMapper.toBookingDtoToReturn(booking);
     }
 
+    /**
+     * Создаёт бронирования пакетом в одной транзакции. Пользователь и вещи загружаются один раз на пакет,
+     * вещи блокируются все сразу. Бронирование, не прошедшее проверку (в том числе пересекающееся с другим
+     * бронированием того же пакета), не создаётся, а причина отказа возвращается на его месте в результате.
+     * Идентификаторы бронирований берутся из последовательности, поэтому вставки отправляются в базу пачками
+     * (hibernate.jdbc.batch_size).
+     */
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<BookingBatchResultDto> createBookings(List<BookingDtoReceived> bookingDtosReceived, Long userId) {
+        userExistenceVerifier.verify(userId);
+        User booker = userRepository.getReferenceById(userId);
+        Set<Long> itemIds = bookingDtosReceived.stream()
+                .map(BookingDtoReceived::getItemId)
+                .collect(Collectors.toSet());
+        itemLockManager.lockAllForTransaction(itemIds);
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        LocalDateTime now = requestClock.now();
+        List<BookingBatchResultDto> results = new ArrayList<>(bookingDtosReceived.size());
+        for (BookingDtoReceived bookingDtoReceived : bookingDtosReceived) {
+            Item item = items.get(bookingDtoReceived.getItemId());
+            try {
+                if (item == null) {
+                    throw new EntityNotFoundException(String.format("Вещь с id %d не найдена",
+                            bookingDtoReceived.getItemId()));
+                }
+                checkBookable(item, userId);
+                checkOverlap(item.getId(), bookingDtoReceived.getStart(), bookingDtoReceived.getEnd(), null);
+            } catch (EntityNotFoundException | UnavailableItemException e) {
+                results.add(BookingBatchResultDto.rejected(e.getMessage()));
+                continue;
+            }
+            Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDtoReceived, item, booker, now));
+            bookingIntervalIndex.reserve(booking);
+            eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), item.getId(), userId,
+                    item.getOwner().getId()));
+            results.add(BookingBatchResultDto.created(BookingMapper.toBookingDtoToReturn(booking)));
+        }
+        return results;
+    }
+
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     public BookingDtoToReturn approveBooking(Long bookingId, Boolean isApproved, Long userId) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Бронирование с id %d не найдено", bookingId)));
+        itemLockManager.lockForTransaction(itemId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Бронирование с id %d не найдено", bookingId)));
-        checkUser(userId);
+        userExistenceVerifier.verify(userId);
         if (!Objects.equals(booking.getItem().getOwner().getId(), userId)) {
             throw new EntityNotFoundException("Статус бронирования может изменять только владелец");
         }
         if (isApproved && Objects.equals(BookingStatus.APPROVED, booking.getStatus())) {
             throw new UnavailableItemException("Бронирование уже имеет статус approved");
         }
+        boolean isIndexed = bookingIntervalIndex.contains(booking.getItem().getId(), bookingId);
         if (isApproved) {
+            if (!isIndexed) {
+                checkOverlap(booking.getItem().getId(), booking.getStart(), booking.getEnd(), bookingId);
+            }
             booking.setStatus(BookingStatus.APPROVED);
         } else {
             booking.setStatus(BookingStatus.REJECTED);
         }
         Booking updatedBooking = bookingRepository.save(booking);
+        if (isApproved && !isIndexed) {
+            bookingIntervalIndex.reserve(updatedBooking);
+        } else if (!isApproved) {
+            bookingIntervalIndex.release(updatedBooking);
+        }
+        itemSummaryProjection.refreshBookings(List.of(itemId));
+        eventPublisher.publishEvent(new BookingChangedEvent(bookingId, itemId, booking.getBooker().getId(), userId));
         return BookingMapper.toBookingDtoToReturn(updatedBooking);
     }
 
+    /**
+     * Применяет решения владельца по нескольким бронированиям. Данные для проверок (владелец вещи, статус, даты)
+     * загружаются одним запросом; блокируются все сразу только вещи, принадлежащие пользователю, после чего данные
+     * его бронирований перечитываются. Статусы меняются не более чем двумя запросами UPDATE - для подтверждённых
+     * и для отклонённых бронирований; затем пересчитываются сводки затронутых вещей. Запросы UPDATE не вызывают слушатель сущности, поэтому
+     * изменения записываются в аудит здесь же, по одному событию на бронирование.
+     * Решение, не прошедшее проверку, не применяется, причина возвращается на его месте в результате.
+     */
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<BookingDecisionResultDto> approveBookings(List<BookingDecisionDto> decisions, Long userId) {
+        userExistenceVerifier.verify(userId);
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, BookingDecisionTarget> targets = new HashMap<>();
+        bookingRepository.findDecisionTargetsByIdIn(bookingIds)
+                .forEach(target -> targets.put(target.getBookingId(), target));
+        Set<Long> ownedBookingIds = new HashSet<>();
+        Set<Long> ownedItemIds = new HashSet<>();
+        for (BookingDecisionTarget target : targets.values()) {
+            if (Objects.equals(target.getOwnerId(), userId)) {
+                ownedBookingIds.add(target.getBookingId());
+                ownedItemIds.add(target.getItemId());
+            }
+        }
+        if (!ownedBookingIds.isEmpty()) {
+            itemLockManager.lockAllForTransaction(ownedItemIds);
+            // статусы могли измениться до захвата блокировок
+            bookingRepository.findDecisionTargetsByIdIn(ownedBookingIds)
+                    .forEach(target -> targets.put(target.getBookingId(), target));
+        }
+        Set<Long> approvedIds = new HashSet<>();
+        Set<Long> rejectedIds = new HashSet<>();
+        Set<Long> changedItemIds = new HashSet<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>(decisions.size());
+        for (BookingDecisionDto decision : decisions) {
+            Long bookingId = decision.getBookingId();
+            BookingDecisionTarget target = targets.get(bookingId);
+            boolean isApproved = decision.getApproved();
+            try {
+                checkDecision(target, bookingId, isApproved, userId,
+                        approvedIds.contains(bookingId) || rejectedIds.contains(bookingId));
+            } catch (EntityNotFoundException | UnavailableItemException e) {
+                results.add(BookingDecisionResultDto.rejected(bookingId, e.getMessage()));
+                continue;
+            }
+            BookingStatus status;
+            if (isApproved) {
+                if (!bookingIntervalIndex.contains(target.getItemId(), bookingId)) {
+                    bookingIntervalIndex.reserveSlot(target.toSlot());
+                }
+                approvedIds.add(bookingId);
+                status = BookingStatus.APPROVED;
+            } else {
+                bookingIntervalIndex.releaseSlot(target.toSlot());
+                rejectedIds.add(bookingId);
+                status = BookingStatus.REJECTED;
+            }
+            changedItemIds.add(target.getItemId());
+            eventPublisher.publishEvent(new BookingChangedEvent(bookingId, target.getItemId(),
+                    target.getBookerId(), userId));
+            results.add(BookingDecisionResultDto.applied(bookingId, status));
+        }
+        if (!approvedIds.isEmpty()) {
+            bookingRepository.updateStatusByIdIn(approvedIds, BookingStatus.APPROVED);
+        }
+        if (!rejectedIds.isEmpty()) {
+            bookingRepository.updateStatusByIdIn(rejectedIds, BookingStatus.REJECTED);
+        }
+        Stream.concat(approvedIds.stream(), rejectedIds.stream())
+                .forEach(bookingId -> auditTrail.record(AuditedEntity.BOOKING, bookingId, AuditAction.UPDATE));
+        itemSummaryProjection.refreshBookings(changedItemIds);
+        return results;
+    }
+
     @Override
-    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    @Cacheable(cacheNames = "bookings", key = "#bookingId")
     public BookingDtoToReturn getBookingById(Long bookingId, Long userId) {
-        checkUser(userId);
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Бронирование с id %d не найдено", bookingId)));
-        if ((!Objects.equals(booking.getItem().getOwner().getId(), userId)) &&
-                (!Objects.equals(booking.getBooker().getId(), userId))) {
+        userExistenceVerifier.verify(userId);
+        BookingSnapshot snapshot = bookingSnapshotLoader.load(bookingId);
+        if (!snapshot.isVisibleTo(userId)) {
             throw new EntityNotFoundException("Бронирование может просматривать автор бронирования либо владелец вещи");
         }
-        return BookingMapper.toBookingDtoToReturn(booking);
+        return BookingMapper.toBookingDtoToReturn(snapshot);
     }
 
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<BookingDtoToReturn> getAllBookingsByUser(Long userId, BookingStatusState state, Integer from,
                                                          Integer size) {
-        checkUser(userId);
-        PageRequest page = PageRequest.of(from / size, size);
-        switch (state) {
-            case ALL:
-                return BookingMapper.toBookingDtoToReturn(bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page)
-                        .getContent());
-            case CURRENT:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId,
-                                LocalDateTime.now(), LocalDateTime.now(), page).getContent());
-            case PAST:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId,
-                                LocalDateTime.now(), page).getContent());
-            case FUTURE:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, LocalDateTime.now(),
-                                page).getContent());
-            case WAITING:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING,
-                                page).getContent());
-            case REJECTED:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED,
-                                page).getContent());
-            default:
-                throw new StatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
+        userExistenceVerifier.verify(userId);
+        checkState(state);
+        return toBookingDtos(bookingRepository.findPageByBookerId(userId, state, requestClock.now(),
+                PageRequest.of(from / size, size)));
     }
 
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<BookingDtoToReturn> getAllBookingsByOwner(Long ownerId, BookingStatusState state, Integer from,
                                                           Integer size) {
-        checkUser(ownerId);
-        PageRequest page = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-        switch (state) {
-            case ALL:
-                return BookingMapper.toBookingDtoToReturn(bookingRepository.findAllByItemOwnerIdOrderByStart(ownerId,
-                        page).getContent());
-            case CURRENT:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStart(ownerId,
-                                LocalDateTime.now(), LocalDateTime.now(), page).getContent());
-            case PAST:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStart(ownerId, LocalDateTime.now(),
-                                page).getContent());
-            case FUTURE:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStart(ownerId, LocalDateTime.now(),
-                                page).getContent());
-            case WAITING:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByItemOwnerIdAndStatusOrderByStart(ownerId, BookingStatus.WAITING,
-                                page).getContent());
-            case REJECTED:
-                return BookingMapper.toBookingDtoToReturn(
-                        bookingRepository.findAllByItemOwnerIdAndStatusOrderByStart(ownerId, BookingStatus.REJECTED,
-                                page).getContent());
-            default:
-                throw new StatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-    }
-
-    private void checkUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId));
+        userExistenceVerifier.verify(ownerId);
+        checkState(state);
+        return toBookingDtos(bookingRepository.findPageByItemOwnerId(ownerId, state, requestClock.now(),
+                PageRequest.of(from / size, size)));
+    }
+
+    @Override
+    public long countBookingsByUser(Long userId, BookingStatusState state) {
+        userExistenceVerifier.verify(userId);
+        checkState(state);
+        return bookingCounter.countByBooker(userId, state);
+    }
+
+    @Override
+    public long countBookingsByOwner(Long ownerId, BookingStatusState state) {
+        userExistenceVerifier.verify(ownerId);
+        checkState(state);
+        return bookingCounter.countByOwner(ownerId, state);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public BookingSliceDto getBookingsSliceByUser(Long userId, BookingStatusState state, String cursor,
+                                                  Integer size) {
+        userExistenceVerifier.verify(userId);
+        checkState(state);
+        return toBookingSliceDto(bookingRepository.findSliceByBookerId(userId, state, requestClock.now(),
+                decodeCursor(cursor), size));
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public BookingSliceDto getBookingsSliceByOwner(Long ownerId, BookingStatusState state, String cursor,
+                                                   Integer size) {
+        userExistenceVerifier.verify(ownerId);
+        checkState(state);
+        return toBookingSliceDto(bookingRepository.findSliceByItemOwnerId(ownerId, state, requestClock.now(),
+                decodeCursor(cursor), size));
+    }
+
+    /**
+     * Передаёт все бронирования пользователя в порядке убывания начала по одному, не собирая их в список:
+     * проверки выполняются до чтения первой строки, затем бронирования читаются курсором базы данных.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public void exportBookingsByUser(Long userId, BookingStatusState state, Consumer<BookingDtoToReturn> action) {
+        userExistenceVerifier.verify(userId);
+        checkState(state);
+        try (Stream<BookingSnapshot> bookings = bookingRepository.streamByBookerId(userId, state,
+                requestClock.now())) {
+            bookings.map(BookingMapper::toBookingDtoToReturn).forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public void exportBookingsByOwner(Long ownerId, BookingStatusState state, Consumer<BookingDtoToReturn> action) {
+        userExistenceVerifier.verify(ownerId);
+        checkState(state);
+        try (Stream<BookingSnapshot> bookings = bookingRepository.streamByItemOwnerId(ownerId, state,
+                requestClock.now())) {
+            bookings.map(BookingMapper::toBookingDtoToReturn).forEach(action);
+        }
+    }
+
+    private static BookingCursor decodeCursor(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : BookingCursor.decode(cursor);
+    }
+
+    private static BookingSliceDto toBookingSliceDto(Slice<BookingSnapshot> slice) {
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            BookingSnapshot last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new BookingCursor(last.getStart(), last.getId()).encode();
+        }
+        return new BookingSliceDto(toBookingDtos(slice.getContent()), nextCursor);
+    }
+
+    private static List<BookingDtoToReturn> toBookingDtos(List<BookingSnapshot> snapshots) {
+        return snapshots.stream()
+                .map(BookingMapper::toBookingDtoToReturn)
+                .collect(Collectors.toList());
+    }
+
+    private static void checkState(BookingStatusState state) {
+        if (state == BookingStatusState.UNSUPPORTED_STATUS) {
+            throw new StatusException("Unknown state: UNSUPPORTED_STATUS");
+        }
+    }
+
+    private void checkDecision(BookingDecisionTarget target, Long bookingId, boolean isApproved, Long userId,
+                               boolean isDecided) {
+        if (target == null) {
+            throw new EntityNotFoundException(String.format("Бронирование с id %d не найдено", bookingId));
         }
+        if (!Objects.equals(target.getOwnerId(), userId)) {
+            throw new EntityNotFoundException("Статус бронирования может изменять только владелец");
+        }
+        if (isDecided) {
+            throw new UnavailableItemException(String.format("Решение по бронированию с id %d уже передано " +
+                    "в этом запросе", bookingId));
+        }
+        if (isApproved && Objects.equals(BookingStatus.APPROVED, target.getStatus())) {
+            throw new UnavailableItemException("Бронирование уже имеет статус approved");
+        }
+        if (isApproved && !bookingIntervalIndex.contains(target.getItemId(), bookingId)) {
+            checkOverlap(target.getItemId(), target.getStart(), target.getEnd(), bookingId);
+        }
+    }
+
+    /**
+     * Быстрый отказ по {@link ItemIdRegistry} до блокировки и загрузки вещи.
+     */
+    private void checkItemBookable(Long itemId) {
+        if (!itemIdRegistry.contains(itemId)) {
+            throw new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
+        if (!itemIdRegistry.isAvailable(itemId)) {
+            throw new UnavailableItemException("Вещь недоступна для бронирования");
+        }
+    }
+
+    private static void checkBookable(Item item, Long userId) {
+        if (!item.getAvailable()) {
+            throw new UnavailableItemException("Вещь недоступна для бронирования");
+        }
+        if (Objects.equals(userId, item.getOwner().getId())) {
+            throw new EntityNotFoundException("Владелец не может бронировать свои вещи");
+        }
+    }
+
+    private void checkOverlap(Long itemId, LocalDateTime start, LocalDateTime end, Long bookingId) {
+        bookingIntervalIndex.findOverlap(itemId, start, end, bookingId).ifPresent(slot -> {
+            throw new UnavailableItemException(String.format("Вещь уже забронирована на указанный период " +
+                    "(бронирование с id %d)", slot.getBookingId()));
+        });
     }
 }
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+
+/**
+ * Загружает снимки бронирований через кэш bookings. Вынесен из BookingServiceImpl, чтобы вызов проходил
+ * через прокси кэша.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingSnapshotLoader {
+    private final BookingRepository bookingRepository;
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    @Cacheable(cacheNames = "bookings", key = "#bookingId")
+    public BookingSnapshot load(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .map(BookingMapper::toBookingSnapshot)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Бронирование с id %d не найдено",
+                        bookingId)));
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.clock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Текущее время, одно на весь HTTP-запрос: первый вызов now() запоминает момент в атрибутах запроса,
+ * последующие возвращают его же, поэтому все проверки и фильтры запроса используют одну границу "сейчас".
+ * Вне HTTP-запроса (фоновые задачи) каждый вызов возвращает время часов clock.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestClock {
+    private static final String NOW_ATTRIBUTE = RequestClock.class.getName() + ".now";
+
+    private final Clock clock;
+
+    public LocalDateTime now() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return LocalDateTime.now(clock);
+        }
+        LocalDateTime now = (LocalDateTime) attributes.getAttribute(NOW_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (now == null) {
+            now = LocalDateTime.now(clock);
+            attributes.setAttribute(NOW_ATTRIBUTE, now, RequestAttributes.SCOPE_REQUEST);
+        }
+        return now;
+    }
+}
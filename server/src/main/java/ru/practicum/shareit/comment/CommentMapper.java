@@ -20,6 +20,11 @@ public class CommentMapper {
                 .build();
     }
 
+    public static CommentDtoResponse toCommentDto(CommentView comment) {
+        return new CommentDtoResponse(comment.getId(), comment.getText(), comment.getAuthorName(),
+                comment.getCreated());
+    }
+
     public static List<CommentDtoResponse> toCommentDto(Iterable<Comment> comments) {
         List<CommentDtoResponse> dtos = new ArrayList<>();
         for (Comment comment : comments) {
@@ -28,12 +33,13 @@ public class CommentMapper {
         return dtos;
     }
 
-    public static Comment toComment(CommentDtoRequest commentDtoRequest, Item item, User author) {
+    public static Comment toComment(CommentDtoRequest commentDtoRequest, Item item, User author,
+                                    LocalDateTime created) {
         return Comment.builder()
                 .text(commentDtoRequest.getText())
                 .item(item)
                 .author(author)
-                .created(LocalDateTime.now())
+                .created(created)
                 .build();
     }
 }
@@ -3,15 +3,22 @@ package ru.practicum.shareit.comment;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"item", "author"})
-    List<Comment> findByItemIn(List<Item> items, Sort sort);
+    @Query("select new ru.practicum.shareit.comment.CommentView(c.item.id, c.id, c.text, a.name, c.created) " +
+            "from Comment as c " +
+            "join c.author as a " +
+            "where c.item.id in ?1")
+    List<CommentView> findViewsByItemIdIn(Collection<Long> itemIds, Sort sort);
 
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"item", "author"})
     List<Comment> findByItem(Item item);
+
+    long countByItem(Item item);
 }
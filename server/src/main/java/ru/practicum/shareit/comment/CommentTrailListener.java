@@ -1,37 +1,38 @@
 package ru.practicum.shareit.comment;
 
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+import ru.practicum.shareit.audit.EntityTrailListener;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
-import javax.persistence.PrePersist;
-import javax.persistence.PreRemove;
-import javax.persistence.PreUpdate;
 
-@Slf4j
-public class CommentTrailListener {
-    @PrePersist
-    @PreUpdate
-    @PreRemove
-    protected void beforeAnyUpdate(Comment comment) {
-        if (comment.getId() == null || comment.getId() == 0) {
-            log.info("[COMMENT AUDIT] About to add a comment to database");
-        } else {
-            log.info("[COMMENT AUDIT] About to update/delete comment: {}", comment.getId());
-        }
+public class CommentTrailListener extends EntityTrailListener {
+    public CommentTrailListener(ObjectProvider<AuditTrail> auditTrail) {
+        super(AuditedEntity.COMMENT, auditTrail);
     }
 
     @PostPersist
+    protected void afterPersist(Comment comment) {
+        record(comment.getId(), AuditAction.CREATE);
+    }
+
     @PostUpdate
+    protected void afterUpdate(Comment comment) {
+        record(comment.getId(), AuditAction.UPDATE);
+    }
+
     @PostRemove
-    protected void afterAnyUpdate(Comment comment) {
-        log.info("[COMMENT AUDIT] add/update/delete complete for comment: {}", comment.getId());
+    protected void afterRemove(Comment comment) {
+        record(comment.getId(), AuditAction.DELETE);
     }
 
     @PostLoad
     protected void afterLoad(Comment comment) {
-        log.info("[COMMENT AUDIT] comment loaded from database: {}", comment.getId());
+        countLoad();
     }
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.comment;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Отзыв для списков вещей: поля ответа и id вещи для группировки, без загрузки сущностей Comment, Item и User.
+ */
+@Value
+public class CommentView {
+    Long itemId;
+    Long id;
+    String text;
+    String authorName;
+    LocalDateTime created;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэши сервиса. Каждый кэш ограничен по размеру и времени жизни записи согласно shareit.cache.specs.*,
+ * кэши, не перечисленные в настройках, не создаются: обращение к ним завершается ошибкой.
+ * Запись и удаление из кэша внутри транзакции откладываются до её фиксации, при откате кэш не меняется.
+ * Метрики кэшей (cache.gets, cache.puts, cache.evictions, cache.size) публикуются через actuator.
+ * Гарантии согласованности каждого кэша описаны в README.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setCacheNames(properties.getSpecs().keySet());
+        properties.getSpecs().forEach((name, spec) -> cacheManager.registerCustomCache(name,
+                Caffeine.from(spec).recordStats().build()));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Настройки кэшей сервиса: имя кэша - спецификация Caffeine (например, maximumSize=10000,expireAfterWrite=1m).
+ * Статистика включается для всех кэшей, указывать recordStats в спецификации не нужно.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.cache")
+public class CacheSpecProperties {
+    private Map<String, String> specs = new LinkedHashMap<>();
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.etag;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Версия ресурса: метка, меняющаяся при каждом изменении ресурса, и время, с которого версия действует.
+ */
+@Value
+public class ResourceVersion {
+    String tag;
+    Instant lastModified;
+
+    /**
+     * Строгий ETag представления ресурса. variant различает представления одной версии ресурса,
+     * которые получают разные пользователи.
+     */
+    public String eTag(String variant) {
+        return "\"" + tag + "-" + variant + "\"";
+    }
+
+    public String eTag() {
+        return "\"" + tag + "\"";
+    }
+}
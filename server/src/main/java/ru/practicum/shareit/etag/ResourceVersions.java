@@ -0,0 +1,50 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии вещей, запросов и пользователей для ETag и Last-Modified. Версия создаётся при первом чтении ресурса и
+ * удаляется обработчиком событий после фиксации каждого изменения ресурса, поэтому следующее чтение получает
+ * новую метку. Версии хранятся в кэше versions: после истечения срока жизни записи ресурс также получает новую
+ * метку, что ограничивает время, в течение которого клиент может получать 304 для устаревшего представления.
+ * Метки уникальны и после перезапуска сервера: последовательность начинается с текущего времени.
+ * Last-Modified имеет точность в секунду и не различает изменения внутри одной секунды, поэтому проверять
+ * актуальность следует по ETag.
+ */
+@Component
+public class ResourceVersions {
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+    public static final String USERS = "users";
+
+    private final Cache versions;
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    public ResourceVersions(CacheManager cacheManager) {
+        this.versions = Objects.requireNonNull(cacheManager.getCache("versions"), "Не настроен кэш versions");
+    }
+
+    /**
+     * Текущая версия ресурса. Вызывается до чтения ресурса, чтобы изменение, зафиксированное между получением
+     * версии и чтением, не осталось под старой меткой.
+     */
+    public ResourceVersion current(String type, Long id) {
+        return versions.get(key(type, id), () -> new ResourceVersion(Long.toString(sequence.incrementAndGet(), 36),
+                Instant.now().truncatedTo(ChronoUnit.SECONDS)));
+    }
+
+    public void invalidate(String type, Long id) {
+        versions.evictIfPresent(key(type, id));
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+
+/**
+ * Бронирование создано, подтверждено или отклонено. Вместе с ним меняются бронирования автора (bookerId)
+ * и бронирования вещей владельца (ownerId).
+ */
+@Value
+public class BookingChangedEvent {
+    Long bookingId;
+    Long itemId;
+    Long bookerId;
+    Long ownerId;
+}
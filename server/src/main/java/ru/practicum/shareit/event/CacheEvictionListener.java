@@ -0,0 +1,73 @@
+package ru.practicum.shareit.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.booking.service.BookingCounter;
+import ru.practicum.shareit.etag.ResourceVersions;
+
+/**
+ * Сбрасывает записи кэшей, затронутые изменением данных. События обрабатываются после фиксации транзакции,
+ * в которой они опубликованы (при откате не обрабатываются), либо сразу, если транзакции нет.
+ * Используется evictIfPresent: он удаляет запись немедленно, тогда как evict внутри синхронизации
+ * транзакции был бы отложен до фиксации, которая уже произошла.
+ * Вместе с записями кэшей сбрасываются версии ресурсов, по которым строятся ETag.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheEvictionListener {
+    private final CacheManager cacheManager;
+    private final ResourceVersions resourceVersions;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        evict("items", event.getItemId());
+        resourceVersions.invalidate(ResourceVersions.ITEMS, event.getItemId());
+        if (event.getRequestId() != null) {
+            evict("requests", event.getRequestId());
+            resourceVersions.invalidate(ResourceVersions.REQUESTS, event.getRequestId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        evict("items", event.getItemId());
+        resourceVersions.invalidate(ResourceVersions.ITEMS, event.getItemId());
+    }
+
+    /**
+     * Число бронирований автора и владельца вещи сбрасывается для всех кэшируемых состояний: создание меняет ALL
+     * и WAITING, решение владельца - WAITING и REJECTED.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        evict("bookings", event.getBookingId());
+        evict("items", event.getItemId());
+        resourceVersions.invalidate(ResourceVersions.ITEMS, event.getItemId());
+        for (BookingStatusState state : BookingCounter.CACHED_STATES) {
+            evict("bookerBookingCounts", new SimpleKey(event.getBookerId(), state));
+            evict("ownerBookingCounts", new SimpleKey(event.getOwnerId(), state));
+        }
+    }
+
+    /**
+     * Кэш users обновляется аннотациями UserServiceImpl, здесь сбрасывается только версия пользователя.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        resourceVersions.invalidate(ResourceVersions.USERS, event.getUserId());
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && cache.evictIfPresent(key)) {
+            log.debug("Из кэша {} удалена запись {}", cacheName, key);
+        }
+    }
+}
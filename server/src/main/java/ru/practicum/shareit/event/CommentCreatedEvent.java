@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+
+/**
+ * К вещи добавлен отзыв.
+ */
+@Value
+public class CommentCreatedEvent {
+    Long commentId;
+    Long itemId;
+}
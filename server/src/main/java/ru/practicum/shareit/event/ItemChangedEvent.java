@@ -0,0 +1,12 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+
+/**
+ * Вещь создана, изменена или удалена. requestId - запрос, в ответ на который добавлена вещь, либо null.
+ */
+@Value
+public class ItemChangedEvent {
+    Long itemId;
+    Long requestId;
+}
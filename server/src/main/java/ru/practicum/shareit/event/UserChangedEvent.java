@@ -0,0 +1,11 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+
+/**
+ * Пользователь изменён или удалён.
+ */
+@Value
+public class UserChangedEvent {
+    Long userId;
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class ConcurrentBookingException extends RuntimeException {
+    public ConcurrentBookingException(String s) {
+        super(s);
+    }
+}
@@ -24,6 +24,13 @@ public class ErrorHandler {
         return new ErrorResponse("Ошибка бронирования", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handle(InvalidCursorException e) {
+        log.warn("Получен статус 400 Bad request {}", e.getMessage(), e);
+        return new ErrorResponse("Ошибка пагинации", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handle(EntityNotFoundException e) {
@@ -38,6 +45,13 @@ public class ErrorHandler {
         return new ErrorResponse("Unknown state: UNSUPPORTED_STATUS", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handle(ConcurrentBookingException e) {
+        log.warn("Получен статус 409 Conflict {}", e.getMessage(), e);
+        return new ErrorResponse("Конфликт бронирования", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handle(Throwable e) {
@@ -12,8 +12,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.comment.CommentDtoRequest;
 import ru.practicum.shareit.comment.CommentDtoResponse;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.service.ItemService;
@@ -27,6 +30,7 @@ import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
     public ResponseEntity<List<ItemDtoResponse>> getItems(@RequestParam(defaultValue = "0") Integer from,
@@ -38,7 +42,16 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDtoResponse> getItemById(@PathVariable Long itemId,
                                                        @RequestHeader(USER_REQUEST_HEADER) Long userId) {
-        return ResponseEntity.ok(itemService.getItemById(itemId, userId));
+        ResourceVersion version = resourceVersions.current(ResourceVersions.ITEMS, itemId);
+        ItemDtoResponse item = itemService.getItemById(itemId, userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(version.eTag(bookingId(item.getLastBooking()) + "." + bookingId(item.getNextBooking())));
+        // Последнее и следующее бронирования меняются со временем без изменения версии вещи,
+        // поэтому Last-Modified отдаётся только для представления без бронирований
+        if (item.getLastBooking() == null && item.getNextBooking() == null) {
+            response.lastModified(version.getLastModified());
+        }
+        return response.body(item);
     }
 
     @GetMapping("/search")
@@ -74,4 +87,8 @@ public class ItemController {
                                                             @RequestHeader(USER_REQUEST_HEADER) Long userId) {
         return ResponseEntity.ok(itemService.createComment(commentDtoRequest, itemId, userId));
     }
+
+    private static long bookingId(BookingForItemDto booking) {
+        return booking == null ? 0 : booking.getId();
+    }
 }
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.registry.IdBitmap;
+import ru.practicum.shareit.registry.IdScanner;
+import ru.practicum.shareit.registry.TransactionalIdSet;
+
+/**
+ * Id существующих и доступных для бронирования вещей в памяти. Заполняется из базы данных при запуске
+ * и изменяется {@link ItemIdRegistryListener} при каждом сохранении и удалении вещи через JPA.
+ * Вещь, которой нет в реестре, не существует (недоступна), поэтому сервисы отвечают на такие запросы
+ * без обращения к базе данных.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemIdRegistry implements SmartInitializingSingleton {
+    private final TransactionalIdSet items = new TransactionalIdSet();
+    private final TransactionalIdSet availableItems = new TransactionalIdSet();
+    private final IdScanner idScanner;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        IdBitmap.Builder itemIds = IdBitmap.builder();
+        IdBitmap.Builder availableItemIds = IdBitmap.builder();
+        idScanner.scan("select item_id, available from items order by item_id", rs -> {
+            long itemId = rs.getLong(1);
+            itemIds.add(itemId);
+            if (rs.getBoolean(2)) {
+                availableItemIds.add(itemId);
+            }
+        });
+        items.reset(itemIds.build());
+        availableItems.reset(availableItemIds.build());
+        log.info("Загружено id вещей: {}, из них доступных: {}, занято памяти: {} байт", items.size(),
+                availableItems.size(), items.sizeInBytes() + availableItems.sizeInBytes());
+    }
+
+    public boolean contains(Long itemId) {
+        return items.contains(itemId);
+    }
+
+    public boolean isAvailable(Long itemId) {
+        return availableItems.contains(itemId);
+    }
+
+    public void itemSaved(Item item) {
+        items.add(item.getId());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            availableItems.add(item.getId());
+        } else {
+            availableItems.remove(item.getId());
+        }
+    }
+
+    public void itemDeleted(Long itemId) {
+        items.remove(itemId);
+        availableItems.remove(itemId);
+    }
+}
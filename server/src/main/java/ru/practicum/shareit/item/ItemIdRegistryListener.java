@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Обновляет {@link ItemIdRegistry} при сохранении, изменении и удалении вещи любым способом через JPA.
+ */
+@RequiredArgsConstructor
+public class ItemIdRegistryListener {
+    private final ObjectProvider<ItemIdRegistry> itemIdRegistry;
+
+    @PostPersist
+    @PostUpdate
+    protected void afterSave(Item item) {
+        itemIdRegistry.ifAvailable(registry -> registry.itemSaved(item));
+    }
+
+    @PostRemove
+    protected void afterRemove(Item item) {
+        itemIdRegistry.ifAvailable(registry -> registry.itemDeleted(item.getId()));
+    }
+}
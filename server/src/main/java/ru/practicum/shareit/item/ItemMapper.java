@@ -3,21 +3,24 @@ package ru.practicum.shareit.item;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentDtoResponse;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.dto.ItemDtoResponseWithRequestId;
 import ru.practicum.shareit.item.dto.ItemForBookingDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ItemMapper {
@@ -36,38 +39,61 @@ public class ItemMapper {
         return itemDtoResponse;
     }
 
-    public static ItemDtoResponse toItemDtoWithBookings(Item item, List<Comment> comments, List<Booking> bookings) {
+    public static ItemDtoResponse toItemDtoWithBookings(ItemView item, List<CommentDtoResponse> comments,
+                                                        ItemSummary summary) {
         ItemDtoResponse itemDtoResponse = ItemDtoResponse.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .requestId(item.getRequestId())
+                .comments(comments)
                 .build();
-        if (item.getRequest() != null) {
-            itemDtoResponse.setRequestId(item.getRequest().getId());
+        if (summary.getLastBookingId() != null) {
+            itemDtoResponse.setLastBooking(new BookingForItemDto(summary.getLastBookingId(), summary.getLastBookerId()));
         }
-        if (bookings.size() != 0) {
-            Optional<Booking> nextBooking = bookings.stream()
-                    .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                    .findFirst();
-            if (nextBooking.isPresent()) {
-                BookingForItemDto nextBookingDto = new BookingForItemDto();
-                nextBookingDto.setId(nextBooking.get().getId());
-                nextBookingDto.setBookerId(nextBooking.get().getBooker().getId());
-                itemDtoResponse.setNextBooking(nextBookingDto);
-            }
+        if (summary.getNextBookingId() != null) {
+            itemDtoResponse.setNextBooking(new BookingForItemDto(summary.getNextBookingId(), summary.getNextBookerId()));
+        }
+        return itemDtoResponse;
+    }
 
-            Optional<Booking> lastBooking = bookings.stream()
-                    .filter(b -> !b.getStart().isAfter(LocalDateTime.now()))
-                    .reduce((first, second) -> second);
-            if (lastBooking.isPresent()) {
-                BookingForItemDto lastBookingDto = new BookingForItemDto();
-                lastBookingDto.setId(lastBooking.get().getId());
-                lastBookingDto.setBookerId(lastBooking.get().getBooker().getId());
-                itemDtoResponse.setLastBooking(lastBookingDto);
-            }
+    public static ItemSnapshot toItemSnapshot(Item item, List<Comment> comments, ItemSummary summary) {
+        List<ItemSnapshot.BookingRef> approvedBookings = new ArrayList<>();
+        if (summary.getLastBookingId() != null) {
+            approvedBookings.add(new ItemSnapshot.BookingRef(summary.getLastBookingId(), summary.getLastBookerId(),
+                    summary.getLastStart()));
+        }
+        if (summary.getNextBookingId() != null) {
+            approvedBookings.add(new ItemSnapshot.BookingRef(summary.getNextBookingId(), summary.getNextBookerId(),
+                    summary.getNextStart()));
+        }
+        return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getRequest() != null ? item.getRequest().getId() : null,
+                List.copyOf(CommentMapper.toCommentDto(comments)), List.copyOf(approvedBookings));
+    }
+
+    public static ItemDtoResponse toItemDto(ItemSnapshot snapshot, boolean withBookings, LocalDateTime now) {
+        ItemDtoResponse itemDtoResponse = ItemDtoResponse.builder()
+                .id(snapshot.getId())
+                .name(snapshot.getName())
+                .description(snapshot.getDescription())
+                .available(snapshot.getAvailable())
+                .requestId(snapshot.getRequestId())
+                .comments(snapshot.getComments().stream()
+                        .map(c -> new CommentDtoResponse(c.getId(), c.getText(), c.getAuthorName(), c.getCreated()))
+                        .collect(Collectors.toList()))
+                .build();
+        if (withBookings) {
+            snapshot.getApprovedBookings().stream()
+                    .filter(b -> b.getStart().isAfter(now))
+                    .findFirst()
+                    .ifPresent(b -> itemDtoResponse.setNextBooking(new BookingForItemDto(b.getId(), b.getBookerId())));
+            snapshot.getApprovedBookings().stream()
+                    .filter(b -> !b.getStart().isAfter(now))
+                    .reduce((first, second) -> second)
+                    .ifPresent(b -> itemDtoResponse.setLastBooking(new BookingForItemDto(b.getId(), b.getBookerId())));
         }
-        itemDtoResponse.setComments(CommentMapper.toCommentDto(comments));
         return itemDtoResponse;
     }
 
@@ -78,22 +104,19 @@ public class ItemMapper {
                 .build();
     }
 
-    public static ItemDtoResponseWithRequestId toItemDtoResponseWithRequestId(Item item) {
-        ItemDtoResponseWithRequestId itemDto = ItemDtoResponseWithRequestId.builder()
+    public static ItemDtoResponseWithRequestId toItemDtoResponseWithRequestId(ItemView item) {
+        return ItemDtoResponseWithRequestId.builder()
                 .id(item.getId())
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
+                .requestId(item.getRequestId())
                 .build();
-        if (item.getRequest() != null) {
-            itemDto.setRequestId(item.getRequest().getId());
-        }
-        return itemDto;
     }
 
-    public static List<ItemDtoResponseWithRequestId> toItemDtoResponseWithRequestId(Iterable<Item> items) {
+    public static List<ItemDtoResponseWithRequestId> toItemDtoResponseWithRequestId(Iterable<ItemView> items) {
         List<ItemDtoResponseWithRequestId> dtos = new ArrayList<>();
-        for (Item item : items) {
+        for (ItemView item : items) {
             dtos.add(toItemDtoResponseWithRequestId(item));
         }
         return dtos;
@@ -1,13 +1,14 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.request.Request;
+import ru.practicum.shareit.item.search.ItemSearchDocument;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -15,18 +16,37 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"owner", "request"})
     List<Item> findAll();
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"owner", "request"})
-    List<Item> findByOwnerId(Long userId, Pageable pageable);
+    @Query("select new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, " +
+            "i.request.id) " +
+            "from Item as i " +
+            "where i.owner.id = ?1 " +
+            "order by i.id asc")
+    List<ItemView> findViewsByOwnerId(Long ownerId, Pageable pageable);
 
-    @Query(" select i from Item i " +
+    @Query("select new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, " +
+            "i.request.id) " +
+            "from Item as i " +
+            "where i.id in ?1")
+    List<ItemView> findViewsByIdIn(Collection<Long> itemIds);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, " +
+            "i.request.id) " +
+            "from Item as i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) and (i.available = true) " +
             "order by i.id asc")
-    List<Item> findByNameOrDescriptionContainingIgnoreCase(String text, Pageable pageable);
+    List<ItemView> findByNameOrDescriptionContainingIgnoreCase(String text, Pageable pageable);
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"owner", "request"})
-    List<Item> findByRequestIn(List<Request> requests, Sort sort);
+    @Query("select new ru.practicum.shareit.item.search.ItemSearchDocument(i.id, i.name, i.description) " +
+            "from Item as i " +
+            "where (i.available = true) and (i.id > ?1) " +
+            "order by i.id asc")
+    List<ItemSearchDocument> findSearchDocumentsAfter(Long itemId, Pageable pageable);
 
-    @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"owner", "request"})
-    List<Item> findByRequest(Request request, Sort sort);
+    @Query("select new ru.practicum.shareit.item.dto.ItemView(i.id, i.name, i.description, i.available, " +
+            "i.request.id) " +
+            "from Item as i " +
+            "where i.request.id in ?1 " +
+            "order by i.id asc")
+    List<ItemView> findViewsByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    @Query("select s.itemId from ItemSummary as s where s.nextStart <= ?1")
+    List<Long> findItemIdsByNextStartNotAfter(LocalDateTime now);
+
+    @Modifying
+    @Query("update ItemSummary as s set s.commentCount = s.commentCount + 1 where s.itemId = ?1")
+    int incrementCommentCount(Long itemId);
+}
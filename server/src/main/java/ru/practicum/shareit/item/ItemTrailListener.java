@@ -1,38 +1,39 @@
 package ru.practicum.shareit.item;
 
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+import ru.practicum.shareit.audit.EntityTrailListener;
 import ru.practicum.shareit.item.model.Item;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
-import javax.persistence.PrePersist;
-import javax.persistence.PreRemove;
-import javax.persistence.PreUpdate;
 
-@Slf4j
-public class ItemTrailListener {
-    @PrePersist
-    @PreUpdate
-    @PreRemove
-    protected void beforeAnyUpdate(Item item) {
-        if (item.getId() == null || item.getId() == 0) {
-            log.info("[ITEM AUDIT] About to add a item to database");
-        } else {
-            log.info("[ITEM AUDIT] About to update/delete item: {}", item.getId());
-        }
+public class ItemTrailListener extends EntityTrailListener {
+    public ItemTrailListener(ObjectProvider<AuditTrail> auditTrail) {
+        super(AuditedEntity.ITEM, auditTrail);
     }
 
     @PostPersist
+    protected void afterPersist(Item item) {
+        record(item.getId(), AuditAction.CREATE);
+    }
+
     @PostUpdate
+    protected void afterUpdate(Item item) {
+        record(item.getId(), AuditAction.UPDATE);
+    }
+
     @PostRemove
-    protected void afterAnyUpdate(Item item) {
-        log.info("[ITEM AUDIT] add/update/delete complete for item: {}", item.getId());
+    protected void afterRemove(Item item) {
+        record(item.getId(), AuditAction.DELETE);
     }
 
     @PostLoad
     protected void afterLoad(Item item) {
-        log.info("[ITEM AUDIT] item loaded from database: {}", item.getId());
+        countLoad();
     }
 }
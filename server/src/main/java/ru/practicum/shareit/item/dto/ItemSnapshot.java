@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.comment.CommentDtoResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Не зависящее от пользователя представление вещи, которое хранится в кэше items:
+ * вещь, её отзывы и последнее и следующее подтверждённые бронирования из сводки item_summary в порядке начала.
+ * Ответ конкретному пользователю строится из снимка при каждом запросе (бронирования видит только владелец).
+ */
+@Value
+public class ItemSnapshot {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    Long requestId;
+    List<CommentDtoResponse> comments;
+    List<BookingRef> approvedBookings;
+
+    @Value
+    public static class BookingRef {
+        Long id;
+        Long bookerId;
+        LocalDateTime start;
+    }
+}
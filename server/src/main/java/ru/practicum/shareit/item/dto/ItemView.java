@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * Поля вещи, которые нужны спискам вещей и ответам на запросы. Выбирается запросом без загрузки сущности Item,
+ * её владельца и запроса.
+ */
+@Value
+public class ItemView {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long requestId;
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import ru.practicum.shareit.item.ItemIdRegistryListener;
 import ru.practicum.shareit.item.ItemTrailListener;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.user.User;
@@ -26,7 +27,7 @@ import javax.persistence.Table;
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Builder
-@EntityListeners(ItemTrailListener.class)
+@EntityListeners({ItemTrailListener.class, ItemIdRegistryListener.class})
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.practicum.shareit.booking.dto.NearestBooking;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapsId;
+import javax.persistence.OneToOne;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Сводка вещи для списков и карточки: последнее и следующее подтверждённые бронирования и число отзывов.
+ * Обновляется при подтверждении и отклонении бронирований и создании отзывов, поэтому при чтении
+ * не нужно выбирать бронирования вещи. UPDATE содержит только изменённые колонки: пересчёт бронирований
+ * не затирает число отзывов, увеличенное параллельной транзакцией.
+ */
+@Entity
+@Table(name = "item_summary")
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@DynamicUpdate
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    @EqualsAndHashCode.Include
+    private Long itemId;
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "item_id")
+    @ToString.Exclude
+    private Item item;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "comment_count")
+    private int commentCount;
+
+    public ItemSummary(Item item) {
+        this.item = item;
+    }
+
+    /**
+     * Пустая сводка вещи, для которой ещё нет строки в item_summary.
+     */
+    public static ItemSummary empty(Long itemId) {
+        ItemSummary summary = new ItemSummary();
+        summary.setItemId(itemId);
+        return summary;
+    }
+
+    public void setBookings(NearestBooking last, NearestBooking next) {
+        lastBookingId = last != null ? last.getBookingId() : null;
+        lastBookerId = last != null ? last.getBookerId() : null;
+        lastStart = last != null ? last.getStart() : null;
+        nextBookingId = next != null ? next.getBookingId() : null;
+        nextBookerId = next != null ? next.getBookerId() : null;
+        nextStart = next != null ? next.getStart() : null;
+    }
+
+    /**
+     * Следующее бронирование уже началось, и сводку нужно пересчитать.
+     */
+    public boolean isOutdated(LocalDateTime now) {
+        return nextStart != null && !nextStart.isAfter(now);
+    }
+}
@@ -0,0 +1,284 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс доступных вещей: для каждого слова названия и описания хранит список вещей с весом
+ * (слово в названии весит больше, чем в описании). Слово запроса совпадает со словами индекса, которые с него
+ * начинаются; вещь попадает в выдачу, если совпали все слова запроса. Выдача упорядочена по релевантности
+ * (вес слова с учётом его редкости, точное совпадение ценится выше совпадения по префиксу), при равенстве - по id.
+ * Заполняется из таблицы items при старте приложения, изменения вещей применяются после фиксации транзакции.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "index", matchIfMissing = true)
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    static final double NAME_WEIGHT = 2.0;
+    static final double DESCRIPTION_WEIGHT = 1.0;
+    static final double PREFIX_FACTOR = 0.5;
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+    private static final Comparator<Map.Entry<Long, Double>> RANKING = Map.Entry.<Long, Double>comparingByValue()
+            .reversed()
+            .thenComparing(Map.Entry.comparingByKey());
+
+    private final ItemRepository itemRepository;
+    private final int maxPrefixTerms;
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public InvertedIndexItemSearchEngine(ItemRepository itemRepository,
+                                         @Value("${shareit.item.search.max-prefix-terms:128}") int maxPrefixTerms) {
+        this.itemRepository = itemRepository;
+        this.maxPrefixTerms = maxPrefixTerms;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        clear();
+        long lastItemId = 0L;
+        List<ItemSearchDocument> batch;
+        do {
+            batch = itemRepository.findSearchDocumentsAfter(lastItemId, PageRequest.ofSize(WARM_UP_BATCH_SIZE));
+            batch.forEach(this::add);
+            if (!batch.isEmpty()) {
+                lastItemId = batch.get(batch.size() - 1).getItemId();
+            }
+        } while (batch.size() == WARM_UP_BATCH_SIZE);
+        log.info("Поисковый индекс вещей заполнен: {} вещей, {} слов", size(), termCount());
+    }
+
+    @Override
+    public List<ItemView> search(String text, Pageable pageable) {
+        List<Long> itemIds = searchIds(text, pageable.getOffset(), pageable.getPageSize());
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ItemView> items = itemRepository.findViewsByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemView::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        ItemSearchDocument document = new ItemSearchDocument(item.getId(), item.getName(), item.getDescription());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            afterCommit(() -> add(document));
+        } else {
+            afterCommit(() -> removeDocument(document.getItemId()));
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> removeDocument(itemId));
+    }
+
+    /**
+     * Возвращает id вещей, соответствующих тексту, в порядке убывания релевантности.
+     */
+    List<Long> searchIds(String text, long offset, int limit) {
+        Set<String> queryTerms = new LinkedHashSet<>(tokenize(text));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Double>> matches = new ArrayList<>(queryTerms.size());
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> match = match(queryTerm);
+                if (match.isEmpty()) {
+                    return List.of();
+                }
+                matches.add(match);
+            }
+            matches.sort(Comparator.comparingInt(Map::size));
+            Map<Long, Double> scores = new HashMap<>(matches.get(0));
+            for (Map<Long, Double> match : matches.subList(1, matches.size())) {
+                Iterator<Map.Entry<Long, Double>> iterator = scores.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Long, Double> entry = iterator.next();
+                    Double score = match.get(entry.getKey());
+                    if (score == null) {
+                        iterator.remove();
+                    } else {
+                        entry.setValue(entry.getValue() + score);
+                    }
+                }
+            }
+            return top(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private Map<Long, Double> match(String queryTerm) {
+        int documentCount = documentTerms.size();
+        Map<Long, Double> scores = new HashMap<>();
+        int expanded = 0;
+        for (Map.Entry<String, Map<Long, Double>> entry : postings.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || expanded++ == maxPrefixTerms) {
+                break;
+            }
+            Map<Long, Double> posting = entry.getValue();
+            double idf = Math.log(1.0 + (double) documentCount / posting.size());
+            double factor = term.length() == queryTerm.length() ? 1.0 : PREFIX_FACTOR;
+            posting.forEach((itemId, weight) -> scores.merge(itemId, weight * idf * factor, Math::max));
+        }
+        return scores;
+    }
+
+    private static List<Long> top(Map<Long, Double> scores, long offset, int limit) {
+        long wanted = offset + limit;
+        if (offset >= scores.size() || limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(RANKING.reversed());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > wanted) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.subList((int) offset, ranked.size()).stream()
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private void add(ItemSearchDocument document) {
+        Map<String, Double> weights = new HashMap<>();
+        tokenize(document.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Double::sum));
+        tokenize(document.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Double::sum));
+        lock.writeLock().lock();
+        try {
+            removeTerms(document.getItemId());
+            weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>())
+                    .put(document.getItemId(), weight));
+            documentTerms.put(document.getItemId(), weights.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDocument(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeTerms(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeTerms(Long itemId) {
+        Set<String> terms = documentTerms.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Double> posting = postings.get(term);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.Value;
+
+@Value
+public class ItemSearchDocument {
+    Long itemId;
+    String name;
+    String description;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поисковый движок для GET /items/search. Реализация выбирается свойством shareit.item.search.mode:
+ * index - инвертированный индекс в памяти (по умолчанию), like - запрос LIKE к таблице items.
+ */
+public interface ItemSearchEngine {
+    /**
+     * Возвращает доступные для бронирования вещи, название или описание которых соответствует тексту.
+     */
+    List<ItemView> search(String text, Pageable pageable);
+
+    /**
+     * Сообщает движку о создании или изменении вещи.
+     */
+    void index(Item item);
+
+    /**
+     * Сообщает движку об удалении вещи.
+     */
+    void remove(Long itemId);
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск подстроки в названии и описании запросом LIKE. Индекс не используется: каждый поиск
+ * просматривает всю таблицу items.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "like")
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemView> search(String text, Pageable pageable) {
+        return itemRepository.findByNameOrDescriptionContainingIgnoreCase(text,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+}
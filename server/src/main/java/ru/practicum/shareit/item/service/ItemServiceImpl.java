@@ -1,32 +1,38 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.clock.RequestClock;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentDtoRequest;
 import ru.practicum.shareit.comment.CommentDtoResponse;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.CommentView;
+import ru.practicum.shareit.event.CommentCreatedEvent;
+import ru.practicum.shareit.event.ItemChangedEvent;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnavailableItemException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemIdRegistry;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -37,6 +43,8 @@ import java.util.Map;
 import java.util.Objects;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
 import static org.springframework.data.domain.Sort.Direction.ASC;
 import static org.springframework.data.domain.Sort.Direction.DESC;
 
@@ -44,71 +52,71 @@ import static org.springframework.data.domain.Sort.Direction.DESC;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
+    private final ItemIdRegistry itemIdRegistry;
     private final UserRepository userRepository;
+    private final UserExistenceVerifier userExistenceVerifier;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final RequestRepository requestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSnapshotLoader itemSnapshotLoader;
+    private final ItemSummaryProjection itemSummaryProjection;
+    private final RequestClock requestClock;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<ItemDtoResponse> getItems(Long ownerId, Integer from, Integer size) {
-        checkUser(ownerId);
+        userExistenceVerifier.verify(ownerId);
         int page = from / size;
-        List<Item> items = itemRepository.findByOwnerId(ownerId,
-                PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id")));
-        Map<Item, List<Booking>> bookings = bookingRepository.findByItemInAndStatus(items, BookingStatus.APPROVED,
-                        Sort.by(ASC, "start")).stream()
-                .collect(groupingBy(Booking::getItem));
-        Map<Item, List<Comment>> comments = commentRepository.findByItemIn(items, Sort.by(ASC, "created")).stream()
-                .collect(groupingBy(Comment::getItem));
+        List<ItemView> items = itemRepository.findViewsByOwnerId(ownerId, PageRequest.of(page, size));
+        Map<Long, ItemSummary> summaries = findSummaries(items);
+        Map<Long, List<CommentDtoResponse>> comments = findComments(summaries, Sort.by(ASC, "created"));
         List<ItemDtoResponse> itemsWithBookingsAndComments = new ArrayList<>();
-        for (Item item : items) {
+        for (ItemView item : items) {
             ItemDtoResponse itemDto = ItemMapper.toItemDtoWithBookings(item,
-                    comments.getOrDefault(item, Collections.emptyList()),
-                    bookings.getOrDefault(item, Collections.emptyList()));
+                    comments.getOrDefault(item.getId(), Collections.emptyList()), summaries.get(item.getId()));
             itemsWithBookingsAndComments.add(itemDto);
         }
         return itemsWithBookingsAndComments;
     }
 
     @Override
-    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    @Cacheable(cacheNames = "items", key = "#itemId")
     public ItemDtoResponse getItemById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId)));
-        List<Booking> bookings = bookingRepository.findByItemAndStatus(item, BookingStatus.APPROVED, Sort.by(ASC, "start"));
-        List<Comment> comments = commentRepository.findByItem(item);
-        if (checkIsOwner(item.getOwner().getId(), userId)) {
-            return ItemMapper.toItemDtoWithBookings(item, comments, bookings);
-        } else {
-            return ItemMapper.toItemDtoWithoutBookings(item, comments);
-        }
+        ItemSnapshot snapshot = itemSnapshotLoader.load(itemId);
+        return ItemMapper.toItemDto(snapshot, checkIsOwner(snapshot.getOwnerId(), userId), requestClock.now());
     }
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     public ItemDtoResponse createItem(ItemDtoRequest itemDtoRequest, Long ownerId) {
-        User owner = userRepository.findById(ownerId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователь с id %d не найден", ownerId)));
+        userExistenceVerifier.verify(ownerId);
+        User owner = userRepository.getReferenceById(ownerId);
         if (itemDtoRequest.getRequestId() != null) {
             Request request = requestRepository.findById(itemDtoRequest.getRequestId())
                     .orElseThrow(() -> new EntityNotFoundException(String.format("Запрос с id %d не найден", itemDtoRequest.getRequestId())));
             Item item = itemRepository.save(ItemMapper.toItem(itemDtoRequest, owner, request));
+            itemSummaryProjection.itemCreated(item);
+            itemSearchEngine.index(item);
+            eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), request.getId()));
             return ItemMapper.toItemDtoWithoutBookings(item, List.of());
         } else {
             Item item = itemRepository.save(ItemMapper.toItem(itemDtoRequest, owner, null));
+            itemSummaryProjection.itemCreated(item);
+            itemSearchEngine.index(item);
             return ItemMapper.toItemDtoWithoutBookings(item, List.of());
         }
     }
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CachePut(cacheNames = "items", key = "#itemId")
     public ItemDtoResponse updateItem(ItemDtoRequest itemDtoRequest, Long itemId, Long ownerId) {
+        if (!itemIdRegistry.contains(itemId)) {
+            throw new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
         Item itemToUpdate = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId)));
-        checkUser(ownerId);
+        userExistenceVerifier.verify(ownerId);
         if (!Objects.equals(itemToUpdate.getOwner().getId(), ownerId)) {
             throw new EntityNotFoundException("Редактировать вещь может только владелец");
         }
@@ -122,20 +130,26 @@ public class ItemServiceImpl implements ItemService {
             itemToUpdate.setAvailable(itemDtoRequest.getAvailable());
         }
         Item item = itemRepository.save(itemToUpdate);
+        itemSearchEngine.index(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId, requestIdOf(item)));
         List<Comment> comments = commentRepository.findByItem(item);
         return ItemMapper.toItemDtoWithoutBookings(item, comments);
     }
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(cacheNames = "items", key = "#itemId")
     public void deleteItem(Long itemId, Long ownerId) {
+        if (!itemIdRegistry.contains(itemId)) {
+            throw new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
         Item itemToDelete = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId)));
         if (!Objects.equals(itemToDelete.getOwner().getId(), ownerId)) {
             throw new EntityNotFoundException("Удалить вещь может только владелец");
         }
         itemRepository.deleteById(itemId);
+        itemSearchEngine.remove(itemId);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId, requestIdOf(itemToDelete)));
     }
 
     @Override
@@ -145,18 +159,13 @@ public class ItemServiceImpl implements ItemService {
             return List.of();
         }
         int page = from / size;
-        List<Item> items = itemRepository.findByNameOrDescriptionContainingIgnoreCase(text,
-                PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "id")));
-        Map<Item, List<Booking>> bookings = bookingRepository.findByItemInAndStatus(items, BookingStatus.APPROVED,
-                        Sort.by(ASC, "start")).stream()
-                .collect(groupingBy(Booking::getItem));
-        Map<Item, List<Comment>> comments = commentRepository.findByItemIn(items, Sort.by(DESC, "created")).stream()
-                .collect(groupingBy(Comment::getItem));
+        List<ItemView> items = itemSearchEngine.search(text, PageRequest.of(page, size));
+        Map<Long, ItemSummary> summaries = findSummaries(items);
+        Map<Long, List<CommentDtoResponse>> comments = findComments(summaries, Sort.by(DESC, "created"));
         List<ItemDtoResponse> itemsWithComments = new ArrayList<>();
-        for (Item item : items) {
+        for (ItemView item : items) {
             ItemDtoResponse itemDto = ItemMapper.toItemDtoWithBookings(item,
-                    comments.getOrDefault(item, Collections.emptyList()),
-                    bookings.getOrDefault(item, Collections.emptyList()));
+                    comments.getOrDefault(item.getId(), Collections.emptyList()), summaries.get(item.getId()));
             itemsWithComments.add(itemDto);
         }
         return itemsWithComments;
@@ -167,21 +176,47 @@ public class ItemServiceImpl implements ItemService {
     public CommentDtoResponse createComment(CommentDtoRequest commentDtoRequest, Long itemId, Long userId) {
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId)));
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId)));
-        Long count = bookingRepository.countByItemIdAndBookerIdAndEndBefore(itemId, userId, LocalDateTime.now());
+        if (!itemIdRegistry.contains(itemId)) {
+            throw new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
+        Item item = itemRepository.getReferenceById(itemId);
+        LocalDateTime now = requestClock.now();
+        Long count = bookingRepository.countByItemIdAndBookerIdAndEndBefore(itemId, userId, now);
         if (count == 0) {
             throw new UnavailableItemException("Комментарий может оставлять только пользователь, бронировавший вещь " +
                     "и только к завершенным бронированиям");
         }
-        Comment comment = commentRepository.save(CommentMapper.toComment(commentDtoRequest, item, author));
+        Comment comment = commentRepository.save(CommentMapper.toComment(commentDtoRequest, item, author, now));
+        itemSummaryProjection.commentAdded(item);
+        eventPublisher.publishEvent(new CommentCreatedEvent(comment.getId(), itemId));
         return CommentMapper.toCommentDto(comment);
     }
 
-    private void checkUser(Long ownerId) {
-        if (!userRepository.existsById(ownerId)) {
-            throw new EntityNotFoundException(String.format("Пользователь с id %d не найден", ownerId));
+    private Map<Long, ItemSummary> findSummaries(List<ItemView> items) {
+        List<Long> itemIds = items.stream()
+                .map(ItemView::getId)
+                .collect(toList());
+        return itemSummaryProjection.findByItemIds(itemIds, requestClock.now());
+    }
+
+    /**
+     * Отзывы вещей по id вещи. Запрашиваются только вещи, у которых по сводке есть отзывы; если таких нет,
+     * запрос не выполняется.
+     */
+    private Map<Long, List<CommentDtoResponse>> findComments(Map<Long, ItemSummary> summaries, Sort sort) {
+        List<Long> commentedItemIds = summaries.values().stream()
+                .filter(summary -> summary.getCommentCount() > 0)
+                .map(ItemSummary::getItemId)
+                .collect(toList());
+        if (commentedItemIds.isEmpty()) {
+            return Map.of();
         }
+        return commentRepository.findViewsByItemIdIn(commentedItemIds, sort).stream()
+                .collect(groupingBy(CommentView::getItemId, mapping(CommentMapper::toCommentDto, toList())));
+    }
+
+    private static Long requestIdOf(Item item) {
+        return item.getRequest() == null ? null : item.getRequest().getId();
     }
 
     private boolean checkIsOwner(Long ownerId, Long userId) {
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemIdRegistry;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.util.List;
+
+/**
+ * Загружает снимки вещей через кэш items. Вынесен из ItemServiceImpl, чтобы вызов проходил через прокси кэша.
+ * Бронирования берутся из сводки вещи, отзывы не запрашиваются, если их нет.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSnapshotLoader {
+    private final ItemRepository itemRepository;
+    private final ItemIdRegistry itemIdRegistry;
+    private final CommentRepository commentRepository;
+    private final ItemSummaryProjection itemSummaryProjection;
+    private final RequestClock requestClock;
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    @Cacheable(cacheNames = "items", key = "#itemId")
+    public ItemSnapshot load(Long itemId) {
+        if (!itemIdRegistry.contains(itemId)) {
+            throw new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId));
+        }
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Вещь с id %d не найдена", itemId)));
+        ItemSummary summary = itemSummaryProjection.findByItemIds(List.of(itemId), requestClock.now()).get(itemId);
+        List<Comment> comments = summary.getCommentCount() > 0 ? commentRepository.findByItem(item) : List.of();
+        return ItemMapper.toItemSnapshot(item, comments, summary);
+    }
+}
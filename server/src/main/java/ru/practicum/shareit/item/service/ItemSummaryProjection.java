@@ -0,0 +1,132 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.ItemLockManager;
+import ru.practicum.shareit.booking.dto.NearestBooking;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.event.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поддерживает таблицу item_summary. Сводка пересчитывается в транзакции, изменившей бронирования или отзывы
+ * вещи, а задача rollStartedBookings переносит начавшееся следующее бронирование в последнее. До её запуска
+ * такие сводки пересчитываются при чтении (без записи), поэтому ответ не зависит от интервала задачи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSummaryProjection {
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemLockManager itemLockManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestClock requestClock;
+
+    /**
+     * Сводки вещей по id вещи. Строка создаётся вместе с вещью, поэтому вещь без строки считается вещью
+     * без отзывов; её бронирования, как и у сводок с начавшимся следующим бронированием, пересчитываются.
+     */
+    public Map<Long, ItemSummary> findByItemIds(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemSummary> summaries = new HashMap<>();
+        for (ItemSummary summary : itemSummaryRepository.findAllById(itemIds)) {
+            summaries.put(summary.getItemId(), summary);
+        }
+        Map<Long, ItemSummary> outdated = new HashMap<>();
+        for (Long itemId : itemIds) {
+            ItemSummary summary = summaries.get(itemId);
+            if (summary == null || summary.isOutdated(now)) {
+                ItemSummary recalculated = ItemSummary.empty(itemId);
+                recalculated.setCommentCount(summary != null ? summary.getCommentCount() : 0);
+                outdated.put(itemId, recalculated);
+            }
+        }
+        if (!outdated.isEmpty()) {
+            applyNearestBookings(outdated, now);
+            summaries.putAll(outdated);
+        }
+        return summaries;
+    }
+
+    /**
+     * Пересчитывает последнее и следующее подтверждённые бронирования вещей. Вызывается в транзакции,
+     * изменившей статус бронирований, под блокировкой вещей.
+     */
+    public void refreshBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemSummary> summaries = new HashMap<>();
+        for (ItemSummary summary : itemSummaryRepository.findAllById(itemIds)) {
+            summaries.put(summary.getItemId(), summary);
+        }
+        List<ItemSummary> created = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            if (!summaries.containsKey(itemId)) {
+                Item item = itemRepository.getReferenceById(itemId);
+                ItemSummary summary = new ItemSummary(item);
+                summary.setCommentCount((int) commentRepository.countByItem(item));
+                summaries.put(itemId, summary);
+                created.add(summary);
+            }
+        }
+        applyNearestBookings(summaries, requestClock.now());
+        itemSummaryRepository.saveAll(created);
+    }
+
+    public void itemCreated(Item item) {
+        itemSummaryRepository.save(new ItemSummary(item));
+    }
+
+    public void commentAdded(Item item) {
+        if (itemSummaryRepository.incrementCommentCount(item.getId()) == 0) {
+            refreshBookings(List.of(item.getId()));
+        }
+    }
+
+    /**
+     * Переносит начавшиеся следующие бронирования в последние. Вещи блокируются, чтобы пересчёт не перезаписал
+     * сводку, которую одновременно обновляет подтверждение бронирования.
+     */
+    @Scheduled(fixedDelayString = "${shareit.item.summary.roll-interval:PT30S}",
+            initialDelayString = "${shareit.item.summary.roll-interval:PT30S}")
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public void rollStartedBookings() {
+        List<Long> itemIds = itemSummaryRepository.findItemIdsByNextStartNotAfter(requestClock.now());
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        itemLockManager.lockAllForTransaction(itemIds);
+        refreshBookings(itemIds);
+        itemIds.forEach(itemId -> eventPublisher.publishEvent(new ItemChangedEvent(itemId, null)));
+        log.debug("Обновлены сводки {} вещей с начавшимися бронированиями", itemIds.size());
+    }
+
+    private void applyNearestBookings(Map<Long, ItemSummary> summaries, LocalDateTime now) {
+        Map<Long, NearestBooking> last = new HashMap<>();
+        Map<Long, NearestBooking> next = new HashMap<>();
+        for (NearestBooking booking : bookingRepository.findLastAndNextApproved(summaries.keySet(), now)) {
+            (booking.isNext() ? next : last).put(booking.getItemId(), booking);
+        }
+        summaries.forEach((itemId, summary) -> summary.setBookings(last.get(itemId), next.get(itemId)));
+    }
+}
@@ -0,0 +1,245 @@
+package ru.practicum.shareit.registry;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасное сжатое множество неотрицательных id, устроенное как Roaring bitmap: id делятся на блоки
+ * по старшим 48 битам, младшие 16 бит хранятся в контейнере блока. Блок, в котором не больше 4096 id, хранится
+ * упорядоченным массивом (2 байта на id), более плотный - битовой картой на 65536 id (8 КБ). Для id, выдаваемых
+ * последовательностью подряд, это около 1 бита на id.
+ * Чтение не блокирует. Изменения одного блока выполняются последовательно: массив заменяется копией,
+ * битовая карта изменяется атомарно на месте.
+ */
+public class IdBitmap {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = (1 << CHUNK_SHIFT) / Long.SIZE;
+
+    private final ConcurrentHashMap<Long, Container> chunks = new ConcurrentHashMap<>();
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean contains(long id) {
+        Container container = chunks.get(id >>> CHUNK_SHIFT);
+        return container != null && container.contains((char) id);
+    }
+
+    /**
+     * Добавляет id; возвращает false, если он уже был в множестве.
+     */
+    public boolean add(long id) {
+        char low = (char) id;
+        boolean[] added = new boolean[1];
+        chunks.compute(id >>> CHUNK_SHIFT, (key, container) -> {
+            if (container != null && container.contains(low)) {
+                return container;
+            }
+            added[0] = true;
+            return container == null ? new ArrayContainer(new char[]{low}) : container.add(low);
+        });
+        return added[0];
+    }
+
+    public void remove(long id) {
+        chunks.computeIfPresent(id >>> CHUNK_SHIFT, (key, container) -> container.remove((char) id));
+    }
+
+    public long cardinality() {
+        return chunks.values().stream()
+                .mapToLong(Container::cardinality)
+                .sum();
+    }
+
+    /**
+     * Примерный объём памяти контейнеров без учёта служебных структур хеш-таблицы.
+     */
+    public long sizeInBytes() {
+        return chunks.values().stream()
+                .mapToLong(Container::sizeInBytes)
+                .sum();
+    }
+
+    /**
+     * Построение множества из id, упорядоченных по возрастанию (например, выборки по первичному ключу):
+     * контейнер каждого блока создаётся один раз, без копирования при каждом добавлении.
+     */
+    public static final class Builder {
+        private final IdBitmap bitmap = new IdBitmap();
+        private final char[] values = new char[1 << CHUNK_SHIFT];
+        private long chunk = -1;
+        private int size;
+
+        public Builder add(long id) {
+            long key = id >>> CHUNK_SHIFT;
+            if (key != chunk) {
+                if (key < chunk) {
+                    throw new IllegalArgumentException("Id должны добавляться в порядке возрастания");
+                }
+                flush();
+                chunk = key;
+            }
+            char low = (char) id;
+            if (size > 0 && values[size - 1] >= low) {
+                if (values[size - 1] == low) {
+                    return this;
+                }
+                throw new IllegalArgumentException("Id должны добавляться в порядке возрастания");
+            }
+            values[size++] = low;
+            return this;
+        }
+
+        public IdBitmap build() {
+            flush();
+            return bitmap;
+        }
+
+        private void flush() {
+            if (size == 0) {
+                return;
+            }
+            Container container = size <= ARRAY_MAX_SIZE
+                    ? new ArrayContainer(Arrays.copyOf(values, size))
+                    : BitmapContainer.of(values, size);
+            bitmap.chunks.put(chunk, container);
+            size = 0;
+        }
+    }
+
+    private interface Container {
+        boolean contains(char low);
+
+        /**
+         * Возвращает контейнер с добавленным значением: этот же или новый, если изменился вид хранения.
+         */
+        Container add(char low);
+
+        /**
+         * Возвращает контейнер без значения либо null, если контейнер стал пустым.
+         */
+        Container remove(char low);
+
+        int cardinality();
+
+        long sizeInBytes();
+    }
+
+    private static final class ArrayContainer implements Container {
+        private final char[] values;
+
+        private ArrayContainer(char[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, low) >= 0;
+        }
+
+        @Override
+        public Container add(char low) {
+            int index = Arrays.binarySearch(values, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (values.length == ARRAY_MAX_SIZE) {
+                return BitmapContainer.of(values, values.length).add(low);
+            }
+            int insertAt = -index - 1;
+            char[] copy = new char[values.length + 1];
+            System.arraycopy(values, 0, copy, 0, insertAt);
+            copy[insertAt] = low;
+            System.arraycopy(values, insertAt, copy, insertAt + 1, values.length - insertAt);
+            return new ArrayContainer(copy);
+        }
+
+        @Override
+        public Container remove(char low) {
+            int index = Arrays.binarySearch(values, low);
+            if (index < 0) {
+                return this;
+            }
+            if (values.length == 1) {
+                return null;
+            }
+            char[] copy = new char[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, index);
+            System.arraycopy(values, index + 1, copy, index, values.length - index - 1);
+            return new ArrayContainer(copy);
+        }
+
+        @Override
+        public int cardinality() {
+            return values.length;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return (long) values.length * Character.BYTES;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+        private final AtomicLongArray words = new AtomicLongArray(BITMAP_WORDS);
+        private volatile int cardinality;
+
+        private static BitmapContainer of(char[] values, int size) {
+            BitmapContainer container = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                container.add(values[i]);
+            }
+            return container;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words.get(low >>> 6) & (1L << low)) != 0;
+        }
+
+        @Override
+        public Container add(char low) {
+            long bit = 1L << low;
+            if ((words.getAndAccumulate(low >>> 6, bit, (word, mask) -> word | mask) & bit) == 0) {
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        public Container remove(char low) {
+            long bit = 1L << low;
+            if ((words.getAndAccumulate(low >>> 6, ~bit, (word, mask) -> word & mask) & bit) == 0) {
+                return this;
+            }
+            cardinality--;
+            return cardinality <= ARRAY_MAX_SIZE ? toArrayContainer() : this;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return (long) BITMAP_WORDS * Long.BYTES;
+        }
+
+        private ArrayContainer toArrayContainer() {
+            char[] values = new char[cardinality];
+            int size = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words.get(i);
+                while (word != 0) {
+                    values[size++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values);
+        }
+    }
+}
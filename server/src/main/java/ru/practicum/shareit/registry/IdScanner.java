@@ -0,0 +1,36 @@
+package ru.practicum.shareit.registry;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Построчное чтение больших выборок id при заполнении реестров: запрос выполняется в транзакции только
+ * для чтения с ограниченным размером выборки, поэтому драйвер (PostgreSQL) читает строки курсором,
+ * а не загружает весь результат в память.
+ */
+@Component
+public class IdScanner {
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdScanner(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void scan(String sql, RowCallbackHandler rowHandler) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rowHandler));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.registry;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Множество id, изменяемое вместе с текущей транзакцией: добавленный id виден сразу и убирается при откате
+ * (если до транзакции его в множестве не было), удалённый - убирается только после фиксации. Поэтому множество
+ * содержит все id, зафиксированные в базе данных, а лишними могут быть только id незавершённых транзакций.
+ */
+public class TransactionalIdSet {
+    private volatile IdBitmap ids = new IdBitmap();
+
+    public boolean contains(Long id) {
+        return id != null && id >= 0 && ids.contains(id);
+    }
+
+    public void add(long id) {
+        IdBitmap current = ids;
+        if (!current.add(id) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    current.remove(id);
+                }
+            }
+        });
+    }
+
+    public void remove(long id) {
+        IdBitmap current = ids;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            current.remove(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                current.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Заменяет содержимое множеством, загруженным из базы данных.
+     */
+    public void reset(IdBitmap loaded) {
+        ids = loaded;
+    }
+
+    public long size() {
+        return ids.cardinality();
+    }
+
+    public long sizeInBytes() {
+        return ids.sizeInBytes();
+    }
+}
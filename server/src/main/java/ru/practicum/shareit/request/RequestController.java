@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 import ru.practicum.shareit.request.dto.RequestDtoResponse;
 
@@ -22,6 +24,7 @@ import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 @RequiredArgsConstructor
 public class RequestController {
     private final RequestService requestService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     public ResponseEntity<RequestDtoResponse> createRequest(@RequestBody RequestDtoPost requestDtoPost,
@@ -37,7 +40,12 @@ public class RequestController {
     @GetMapping("/{requestId}")
     public ResponseEntity<RequestDtoResponse> getRequestById(@PathVariable Long requestId,
                                                              @RequestHeader(USER_REQUEST_HEADER) Long userId) {
-        return ResponseEntity.ok(requestService.getRequestById(requestId, userId));
+        ResourceVersion version = resourceVersions.current(ResourceVersions.REQUESTS, requestId);
+        RequestDtoResponse request = requestService.getRequestById(requestId, userId);
+        return ResponseEntity.ok()
+                .eTag(version.eTag())
+                .lastModified(version.getLastModified())
+                .body(request);
     }
 
     @GetMapping("/all")
@@ -3,9 +3,10 @@ package ru.practicum.shareit.request;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 import ru.practicum.shareit.request.dto.RequestDtoResponse;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
@@ -21,7 +22,16 @@ public class RequestMapper {
                 .build();
     }
 
-    public static RequestDtoResponse toRequestDtoResponse(Request request, List<Item> items) {
+    public static RequestDtoResponse toRequestDtoResponse(Request request, List<ItemView> items) {
+        return RequestDtoResponse.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .created(request.getCreated())
+                .items(ItemMapper.toItemDtoResponseWithRequestId(items))
+                .build();
+    }
+
+    public static RequestDtoResponse toRequestDtoResponse(RequestView request, List<ItemView> items) {
         return RequestDtoResponse.builder()
                 .id(request.getId())
                 .description(request.getDescription())
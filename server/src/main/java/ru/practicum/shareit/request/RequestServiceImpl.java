@@ -2,22 +2,21 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 import ru.practicum.shareit.request.dto.RequestDtoResponse;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -31,12 +30,13 @@ public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceVerifier userExistenceVerifier;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     public RequestDtoResponse createRequest(RequestDtoPost requestDtoPost, Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId)));
+        userExistenceVerifier.verify(userId);
+        User user = userRepository.getReferenceById(userId);
         Request request = requestRepository.save(RequestMapper.toRequest(requestDtoPost, user, LocalDateTime.now()));
         return RequestMapper.toRequestDtoResponse(request);
     }
@@ -44,49 +44,40 @@ public class RequestServiceImpl implements RequestService {
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<RequestDtoResponse> getAllRequests(Long userId) {
-        checkUser(userId);
-        List<Request> requests = requestRepository.findByRequestorId(userId, Sort.by(Sort.Direction.ASC,"created"));
-        Map<Request, List<Item>> items = itemRepository.findByRequestIn(requests, Sort.by(Sort.Direction.ASC,"id")).stream()
-                .collect(groupingBy(Item::getRequest));
-        return requests.stream()
-                .map(r -> RequestMapper.toRequestDtoResponse(r,
-                        items.getOrDefault(r, Collections.emptyList())))
-                .collect(Collectors.toList());
+        userExistenceVerifier.verify(userId);
+        return toRequestDtos(requestRepository.findViewsByRequestorId(userId));
     }
 
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     @Cacheable(cacheNames = "requests", key = "#requestId")
     public RequestDtoResponse getRequestById(Long requestId, Long userId) {
-        checkUser(userId);
+        userExistenceVerifier.verify(userId);
         Request request = requestRepository.findById(requestId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Запрос с id %d не найден", requestId)));
-        List<Item> items = itemRepository.findByRequest(request, Sort.by(Sort.Direction.ASC, "id"));
+        List<ItemView> items = itemRepository.findViewsByRequestIdIn(List.of(requestId));
         return RequestMapper.toRequestDtoResponse(request, items);
     }
 
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<RequestDtoResponse> getAllByPages(Integer from, Integer size, Long userId) {
-        checkUser(userId);
+        userExistenceVerifier.verify(userId);
         int page = from / size;
-        Page<Request> requestsByPage = requestRepository.findAllByRequestorIdNot(userId, PageRequest.of(page, size,
-                Sort.by(Sort.Direction.DESC, "created")));
-        List<Request> requests = new ArrayList<>();
-        if (requestsByPage != null && requestsByPage.hasContent()) {
-            requests = requestsByPage.getContent();
-        }
-        Map<Request, List<Item>> items = itemRepository.findByRequestIn(requests, Sort.by(Sort.Direction.ASC,"id")).stream()
-                .collect(groupingBy(Item::getRequest));
-        return requests.stream()
-                .map(r -> RequestMapper.toRequestDtoResponse(r,
-                        items.getOrDefault(r, Collections.emptyList())))
-                .collect(Collectors.toList());
+        return toRequestDtos(requestRepository.findViewsByRequestorIdNot(userId, PageRequest.of(page, size)));
     }
 
-    private void checkUser(Long ownerId) {
-        if (!userRepository.existsById(ownerId)) {
-            throw new EntityNotFoundException(String.format("Пользователь с id %d не найден", ownerId));
+    private List<RequestDtoResponse> toRequestDtos(List<RequestView> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
         }
+        List<Long> requestIds = requests.stream()
+                .map(RequestView::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemView>> items = itemRepository.findViewsByRequestIdIn(requestIds).stream()
+                .collect(groupingBy(ItemView::getRequestId));
+        return requests.stream()
+                .map(r -> RequestMapper.toRequestDtoResponse(r, items.getOrDefault(r.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Поля запроса для списков запросов, без загрузки сущности Request и автора запроса.
+ */
+@Value
+public class RequestView {
+    Long id;
+    String description;
+    LocalDateTime created;
+}
@@ -19,7 +19,7 @@ import javax.persistence.Table;
 @NoArgsConstructor
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 @Builder
-@EntityListeners(UserTrailListener.class)
+@EntityListeners({UserTrailListener.class, UserIdRegistryListener.class})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -10,6 +10,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -20,15 +23,22 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> getUsers() {
-        return ResponseEntity.ok(userService.getUsers());
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(defaultValue = "0") Integer from,
+                                                  @RequestParam(defaultValue = "10") Integer size) {
+        return ResponseEntity.ok(userService.getUsers(from, size));
     }
 
     @GetMapping("/{userId}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
-        return ResponseEntity.ok(userService.getUserById(userId));
+        ResourceVersion version = resourceVersions.current(ResourceVersions.USERS, userId);
+        UserDto user = userService.getUserById(userId);
+        return ResponseEntity.ok()
+                .eTag(version.eTag())
+                .lastModified(version.getLastModified())
+                .body(user);
     }
 
     @PostMapping
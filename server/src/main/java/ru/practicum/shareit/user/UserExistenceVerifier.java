@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+
+/**
+ * Проверка существования пользователя перед операцией по {@link UserIdRegistry}, без обращения к базе данных.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserExistenceVerifier {
+    private final UserIdRegistry userIdRegistry;
+
+    public void verify(Long userId) {
+        if (!userIdRegistry.contains(userId)) {
+            throw new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId));
+        }
+    }
+}
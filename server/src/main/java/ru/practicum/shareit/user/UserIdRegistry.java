@@ -0,0 +1,42 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.registry.IdBitmap;
+import ru.practicum.shareit.registry.IdScanner;
+import ru.practicum.shareit.registry.TransactionalIdSet;
+
+/**
+ * Id существующих пользователей в памяти. Заполняется из базы данных при запуске, до начала приёма запросов,
+ * и изменяется {@link UserIdRegistryListener} при каждом сохранении и удалении пользователя через JPA
+ * в той же транзакции (см. {@link TransactionalIdSet}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdRegistry implements SmartInitializingSingleton {
+    private final TransactionalIdSet ids = new TransactionalIdSet();
+    private final IdScanner idScanner;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        IdBitmap.Builder builder = IdBitmap.builder();
+        idScanner.scan("select user_id from users order by user_id", rs -> builder.add(rs.getLong(1)));
+        ids.reset(builder.build());
+        log.info("Загружено id пользователей: {}, занято памяти: {} байт", ids.size(), ids.sizeInBytes());
+    }
+
+    public boolean contains(Long userId) {
+        return ids.contains(userId);
+    }
+
+    public void userCreated(Long userId) {
+        ids.add(userId);
+    }
+
+    public void userDeleted(Long userId) {
+        ids.remove(userId);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+
+/**
+ * Обновляет {@link UserIdRegistry} при сохранении и удалении пользователя любым способом через JPA.
+ */
+@RequiredArgsConstructor
+public class UserIdRegistryListener {
+    private final ObjectProvider<UserIdRegistry> userIdRegistry;
+
+    @PostPersist
+    protected void afterPersist(User user) {
+        userIdRegistry.ifAvailable(registry -> registry.userCreated(user.getId()));
+    }
+
+    @PostRemove
+    protected void afterRemove(User user) {
+        userIdRegistry.ifAvailable(registry -> registry.userDeleted(user.getId()));
+    }
+}
@@ -1,37 +1,38 @@
 package ru.practicum.shareit.user;
 
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+import ru.practicum.shareit.audit.EntityTrailListener;
 
 import javax.persistence.PostLoad;
 import javax.persistence.PostPersist;
 import javax.persistence.PostRemove;
 import javax.persistence.PostUpdate;
-import javax.persistence.PrePersist;
-import javax.persistence.PreRemove;
-import javax.persistence.PreUpdate;
 
-@Slf4j
-public class UserTrailListener {
-    @PrePersist
-    @PreUpdate
-    @PreRemove
-    protected void beforeAnyUpdate(User user) {
-        if (user.getId() == null || user.getId() == 0) {
-            log.info("[USER AUDIT] About to add a user to database");
-        } else {
-            log.info("[USER AUDIT] About to update/delete user: {}", user.getId());
-        }
+public class UserTrailListener extends EntityTrailListener {
+    public UserTrailListener(ObjectProvider<AuditTrail> auditTrail) {
+        super(AuditedEntity.USER, auditTrail);
     }
 
     @PostPersist
+    protected void afterPersist(User user) {
+        record(user.getId(), AuditAction.CREATE);
+    }
+
     @PostUpdate
+    protected void afterUpdate(User user) {
+        record(user.getId(), AuditAction.UPDATE);
+    }
+
     @PostRemove
-    protected void afterAnyUpdate(User user) {
-        log.info("[USER AUDIT] add/update/delete complete for user: {}", user.getId());
+    protected void afterRemove(User user) {
+        record(user.getId(), AuditAction.DELETE);
     }
 
     @PostLoad
     protected void afterLoad(User user) {
-        log.info("[USER AUDIT] user loaded from database: {}", user.getId());
+        countLoad();
     }
 }
@@ -5,7 +5,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.util.List;
 
 public interface UserService {
-    List<UserDto> getUsers();
+    List<UserDto> getUsers(Integer from, Integer size);
 
     UserDto getUserById(Long userId);
 
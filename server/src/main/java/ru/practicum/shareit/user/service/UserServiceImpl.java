@@ -4,11 +4,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.event.UserChangedEvent;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -20,11 +25,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserExistenceVerifier userExistenceVerifier;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
-    public List<UserDto> getUsers() {
-        return userRepository.findAll().stream()
+    public List<UserDto> getUsers(Integer from, Integer size) {
+        int page = from / size;
+        return userRepository.findAll(PageRequest.of(page, size, Sort.by("id"))).stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
@@ -57,16 +65,17 @@ public class UserServiceImpl implements UserService {
         if (userDto.getEmail() != null && !userDto.getEmail().isBlank()) {
             userToUpdate.setEmail(userDto.getEmail());
         }
-        return UserMapper.toUserDto(userRepository.save(userToUpdate));
+        User user = userRepository.save(userToUpdate);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        return UserMapper.toUserDto(user);
     }
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @CacheEvict(cacheNames = "users", key = "#userId")
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId));
-        }
+        userExistenceVerifier.verify(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 }
@@ -0,0 +1,17 @@
+-- bookings of an item by status ordered by start: last/next booking, overlap checks
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+-- bookings of a booker ordered by start: GET /bookings
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date);
+
+-- items of an owner: GET /items, GET /bookings/owner
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id);
+
+-- items created in response to a request
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+-- item comments ordered by creation date
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
+
+-- requests of a requestor ordered by creation date
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created);
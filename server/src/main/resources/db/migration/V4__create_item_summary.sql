@@ -0,0 +1,30 @@
+-- read model of an item: last and next approved bookings and the number of comments, one row per item;
+-- maintained by the service on write, "next" is rolled into "last" by a scheduled job once it starts
+CREATE TABLE IF NOT EXISTS item_summary
+(
+    item_id BIGINT PRIMARY KEY REFERENCES items (item_id) ON DELETE CASCADE,
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start TIMESTAMP WITHOUT TIME ZONE,
+    comment_count INTEGER DEFAULT 0 NOT NULL
+);
+
+-- summaries whose next booking has started: scheduled roll of "next" into "last"
+CREATE INDEX IF NOT EXISTS ix_item_summary_next_start ON item_summary (next_start);
+
+INSERT INTO item_summary (item_id, last_booking_id, last_booker_id, last_start, next_booking_id, next_booker_id,
+                          next_start, comment_count)
+SELECT i.item_id, l.booking_id, l.booker_id, l.start_date, n.booking_id, n.booker_id, n.start_date,
+       (SELECT COUNT(*) FROM comments c WHERE c.item_id = i.item_id)
+FROM items i
+LEFT JOIN (SELECT b.item_id, b.booking_id, b.booker_id, b.start_date,
+                  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.booking_id) AS rn
+           FROM bookings b
+           WHERE b.status = 'APPROVED' AND b.start_date <= LOCALTIMESTAMP) l ON l.item_id = i.item_id AND l.rn = 1
+LEFT JOIN (SELECT b.item_id, b.booking_id, b.booker_id, b.start_date,
+                  ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.booking_id) AS rn
+           FROM bookings b
+           WHERE b.status = 'APPROVED' AND b.start_date > LOCALTIMESTAMP) n ON n.item_id = i.item_id AND n.rn = 1;
@@ -0,0 +1,20 @@
+-- position of a booking relative to the current time; kept current by a scheduled sweep so that
+-- CURRENT/PAST/FUTURE filters are equality lookups
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS phase VARCHAR(16);
+
+UPDATE bookings SET phase = CASE
+    WHEN end_date < LOCALTIMESTAMP THEN 'PAST'
+    WHEN start_date > LOCALTIMESTAMP THEN 'FUTURE'
+    ELSE 'CURRENT' END;
+
+ALTER TABLE bookings ALTER COLUMN phase SET NOT NULL;
+
+-- bookings of a booker in a phase ordered by start: GET /bookings?state=CURRENT|PAST|FUTURE
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_phase_start ON bookings (booker_id, phase, start_date);
+
+-- bookings of owner's items in a phase: GET /bookings/owner?state=CURRENT|PAST|FUTURE
+CREATE INDEX IF NOT EXISTS ix_bookings_item_phase_start ON bookings (item_id, phase, start_date);
+
+-- sweep: bookings whose phase has to move on
+CREATE INDEX IF NOT EXISTS ix_bookings_phase_start ON bookings (phase, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_phase_end ON bookings (phase, end_date);
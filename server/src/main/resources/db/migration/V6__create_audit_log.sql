@@ -0,0 +1,12 @@
+-- append-only audit trail of entity changes; rows are written in batches by a background job
+-- after the changing transaction commits and are never updated
+CREATE TABLE IF NOT EXISTS audit_log
+(
+    audit_id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    entity VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    action VARCHAR(16) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_audit_log_entity ON audit_log (entity, entity_id);
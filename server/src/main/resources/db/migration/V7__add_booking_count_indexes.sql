@@ -0,0 +1,2 @@
+-- number of bookings of a booker with a status: X-Total-Count of GET /bookings?state=WAITING|REJECTED
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status ON bookings (booker_id, status);
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+    @Mock
+    private AuditTrail auditTrail;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private AuditLogWriter auditLogWriter;
+
+    @Test
+    void flush_whenEventsBuffered_thenWrittenInBatchesUntilEmpty() {
+        List<AuditEvent> first = List.of(event(1L), event(2L));
+        List<AuditEvent> second = List.of(event(3L));
+        when(auditTrail.drain(AuditLogWriter.BATCH_SIZE)).thenReturn(first).thenReturn(second).thenReturn(List.of());
+
+        auditLogWriter.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), eq(first), eq(2), any());
+        verify(jdbcTemplate).batchUpdate(anyString(), eq(second), eq(1), any());
+    }
+
+    @Test
+    void flush_whenBufferEmpty_thenNothingWritten() {
+        when(auditTrail.drain(AuditLogWriter.BATCH_SIZE)).thenReturn(List.of());
+
+        auditLogWriter.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void flush_whenWriteFails_thenRemainingBatchesStillWritten() {
+        when(auditTrail.drain(AuditLogWriter.BATCH_SIZE))
+                .thenReturn(List.of(event(1L)))
+                .thenReturn(List.of(event(2L)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(new int[][]{{1}});
+
+        auditLogWriter.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(), any());
+    }
+
+    private static AuditEvent event(Long id) {
+        return new AuditEvent(LocalDateTime.now(), AuditedEntity.BOOKING, id, AuditAction.CREATE);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+class AuditTrailTest {
+    private static final Instant NOW = Instant.parse("2023-03-01T10:00:00Z");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuditTrail auditTrail = new AuditTrail(2, Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(auditTrail);
+    }
+
+    @Test
+    void record_whenNoTransaction_thenEventBufferedImmediately() {
+        auditTrail.record(AuditedEntity.ITEM, 1L, AuditAction.CREATE);
+
+        assertThat(auditTrail.drain(10), contains(new AuditEvent(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC),
+                AuditedEntity.ITEM, 1L, AuditAction.CREATE)));
+    }
+
+    @Test
+    void record_whenBufferFull_thenEventDroppedAndCounted() {
+        auditTrail.record(AuditedEntity.ITEM, 1L, AuditAction.CREATE);
+        auditTrail.record(AuditedEntity.ITEM, 2L, AuditAction.CREATE);
+        auditTrail.record(AuditedEntity.ITEM, 3L, AuditAction.CREATE);
+
+        assertThat(auditTrail.drain(10), hasSize(2));
+        assertThat(auditTrail.getDroppedCount(), equalTo(1L));
+        assertThat(meterRegistry.get("shareit.audit.dropped").functionCounter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void record_whenInTransaction_thenEventBufferedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditTrail.record(AuditedEntity.BOOKING, 1L, AuditAction.UPDATE);
+        auditTrail.record(AuditedEntity.BOOKING, 2L, AuditAction.UPDATE);
+
+        assertThat(auditTrail.drain(10), empty());
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(auditTrail.drain(10), hasSize(2));
+    }
+
+    @Test
+    void record_whenTransactionRolledBack_thenEventDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditTrail.record(AuditedEntity.BOOKING, 1L, AuditAction.DELETE);
+
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(auditTrail.drain(10), empty());
+    }
+
+    @Test
+    void drain_whenMoreEventsThanLimit_thenOldestReturned() {
+        auditTrail.record(AuditedEntity.USER, 1L, AuditAction.CREATE);
+        auditTrail.record(AuditedEntity.USER, 2L, AuditAction.CREATE);
+
+        List<AuditEvent> first = auditTrail.drain(1);
+
+        assertThat(first.get(0).getEntityId(), equalTo(1L));
+        assertThat(auditTrail.drain(1).get(0).getEntityId(), equalTo(2L));
+    }
+
+    @Test
+    void countLoad_whenInvoked_thenCounterIncrementedWithoutEvent() {
+        auditTrail.countLoad(AuditedEntity.COMMENT);
+        auditTrail.countLoad(AuditedEntity.COMMENT);
+
+        assertThat(auditTrail.getLoadCount(AuditedEntity.COMMENT), equalTo(2L));
+        assertThat(meterRegistry.get("shareit.audit.loads").tag("entity", "comment").functionCounter().count(),
+                equalTo(2.0));
+        assertThat(auditTrail.drain(10), empty());
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -7,26 +7,41 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.BookingStatusState;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.InvalidCursorException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.constant.ConstantKeeper.NEXT_CURSOR_HEADER;
+import static ru.practicum.shareit.constant.ConstantKeeper.TOTAL_COUNT_HEADER;
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
@@ -97,6 +112,51 @@ class BookingControllerTest {
         assertEquals(objectMapper.writeValueAsString(expectedBooking), response);
     }
 
+    @Test
+    @SneakyThrows
+    void approveBookings_whenInvokedWithDecisions_thenResultPerDecisionReturned() {
+        Long userId = 1L;
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                new BookingDecisionDto(2L, false));
+        List<BookingDecisionResultDto> expectedResults = List.of(
+                BookingDecisionResultDto.applied(1L, BookingStatus.APPROVED),
+                BookingDecisionResultDto.applied(2L, BookingStatus.REJECTED));
+        when(bookingService.approveBookings(decisions, userId)).thenReturn(expectedResults);
+
+        String response = mockMvc.perform(patch("/bookings/batch")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(decisions)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(expectedResults), response);
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookings_whenInvokedWithListOfDtos_thenResultPerEntryReturned() {
+        Long userId = 1L;
+        List<BookingBatchResultDto> expectedResults = List.of(
+                BookingBatchResultDto.created(new BookingDtoToReturn()),
+                BookingBatchResultDto.rejected("Вещь недоступна для бронирования"));
+        when(bookingService.createBookings(List.of(bookingDtoReceived, bookingDtoReceived), userId))
+                .thenReturn(expectedResults);
+
+        String response = mockMvc.perform(post("/bookings/batch")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(List.of(bookingDtoReceived, bookingDtoReceived))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(objectMapper.writeValueAsString(expectedResults), response);
+    }
+
     @Test
     @SneakyThrows
     void approveBooking_whenInvoked_thenResponseStatusOkWithBookingDtoInBody() {
@@ -124,10 +184,12 @@ class BookingControllerTest {
         List<BookingDtoToReturn> expectedBookings = List.of(new BookingDtoToReturn());
         when(bookingService.getAllBookingsByUser(anyLong(), eq(BookingStatusState.ALL), anyInt(),
                 anyInt())).thenReturn(expectedBookings);
+        when(bookingService.countBookingsByUser(userId, BookingStatusState.ALL)).thenReturn(25L);
 
         String response = mockMvc.perform(get("/bookings")
                         .header(USER_REQUEST_HEADER, userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "25"))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -143,10 +205,12 @@ class BookingControllerTest {
         List<BookingDtoToReturn> expectedBookings = List.of(new BookingDtoToReturn());
         when(bookingService.getAllBookingsByOwner(anyLong(), eq(BookingStatusState.ALL), anyInt(),
                 anyInt())).thenReturn(expectedBookings);
+        when(bookingService.countBookingsByOwner(ownerId, BookingStatusState.ALL)).thenReturn(7L);
 
         String response = mockMvc.perform(get("/bookings/owner")
                         .header(USER_REQUEST_HEADER, ownerId))
                 .andExpect(status().isOk())
+                .andExpect(header().string(TOTAL_COUNT_HEADER, "7"))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -154,4 +218,96 @@ class BookingControllerTest {
         verify(bookingService).getAllBookingsByOwner(anyLong(), eq(BookingStatusState.ALL), anyInt(), anyInt());
         assertEquals(objectMapper.writeValueAsString(expectedBookings), response);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getBookingsSliceByUser_whenInvokedWithCursor_thenNextCursorReturnedInHeader() {
+        Long userId = 1L;
+        List<BookingDtoToReturn> expectedBookings = List.of(new BookingDtoToReturn());
+        when(bookingService.getBookingsSliceByUser(userId, BookingStatusState.ALL, "", 10))
+                .thenReturn(new BookingSliceDto(expectedBookings, "next"));
+
+        String response = mockMvc.perform(get("/bookings")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(NEXT_CURSOR_HEADER, "next"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        verify(bookingService).getBookingsSliceByUser(userId, BookingStatusState.ALL, "", 10);
+        assertEquals(objectMapper.writeValueAsString(expectedBookings), response);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsSliceByOwner_whenLastSlice_thenNoNextCursorHeader() {
+        Long ownerId = 1L;
+        when(bookingService.getBookingsSliceByOwner(ownerId, BookingStatusState.WAITING, "abc", 5))
+                .thenReturn(new BookingSliceDto(List.of(), null));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .header(USER_REQUEST_HEADER, ownerId)
+                        .param("state", "WAITING")
+                        .param("cursor", "abc")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+
+        verify(bookingService).getBookingsSliceByOwner(ownerId, BookingStatusState.WAITING, "abc", 5);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookingsSliceByUser_whenCursorMalformed_thenResponseStatusIsBadRequest() {
+        Long userId = 1L;
+        when(bookingService.getBookingsSliceByUser(userId, BookingStatusState.ALL, "abc", 10))
+                .thenThrow(new InvalidCursorException("Некорректный курсор: abc"));
+
+        mockMvc.perform(get("/bookings")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .param("cursor", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByUser_whenBookingsExported_thenOneJsonObjectPerLine() {
+        Long userId = 1L;
+        BookingDtoToReturn first = BookingDtoToReturn.builder().id(1L).status(BookingStatus.WAITING).build();
+        BookingDtoToReturn second = BookingDtoToReturn.builder().id(2L).status(BookingStatus.APPROVED).build();
+        doAnswer(invocation -> {
+            Consumer<BookingDtoToReturn> action = invocation.getArgument(2);
+            action.accept(first);
+            action.accept(second);
+            return null;
+        }).when(bookingService).exportBookingsByUser(eq(userId), eq(BookingStatusState.PAST), any());
+
+        String response = mockMvc.perform(get("/bookings/export")
+                        .header(USER_REQUEST_HEADER, userId)
+                        .param("state", "PAST"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n",
+                response);
+    }
+
+    @Test
+    @SneakyThrows
+    void exportBookingsByOwner_whenOwnerNotFound_thenResponseStatusIsNotFound() {
+        Long ownerId = 99L;
+        doThrow(new EntityNotFoundException("Пользователь с id 99 не найден"))
+                .when(bookingService).exportBookingsByOwner(eq(ownerId), eq(BookingStatusState.ALL), any());
+
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header(USER_REQUEST_HEADER, ownerId)
+                        .accept("application/x-ndjson", "application/json"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith("application/json"));
+    }
+}
@@ -4,10 +4,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
+import ru.practicum.shareit.booking.dto.NearestBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPhase;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.config.ClockConfig;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -15,12 +24,16 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @DataJpaTest
+@Import({ClockConfig.class, RequestClock.class})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class BookingRepositoryTest {
     @Autowired
@@ -29,6 +42,8 @@ class BookingRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private TestEntityManager entityManager;
     private Item item1;
     private Item item2;
     private User owner1;
@@ -106,79 +121,123 @@ class BookingRepositoryTest {
         userRepository.save(booker2);
         itemRepository.save(item1);
         itemRepository.save(item2);
-        bookingRepository.save(booking1);
-        bookingRepository.save(booking2);
+        booking1 = bookingRepository.save(booking1);
+        booking2 = bookingRepository.save(booking2);
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStart() {
+    void findPageByItemOwnerId() {
         Long userId = owner1.getId();
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdOrderByStart(userId,
-                PageRequest.ofSize(10)).getContent();
+        List<BookingSnapshot> bookings = bookingRepository.findPageByItemOwnerId(userId, BookingStatusState.ALL,
+                LocalDateTime.now(), PageRequest.ofSize(10));
 
         assertNotNull(bookings);
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(bookings.get(0).getItem().getId(), equalTo(item1.getId()));
-        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker1.getId()));
+        assertThat(bookings.get(0).getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(bookings.get(0).getBookerId(), equalTo(booker1.getId()));
+        assertThat(bookings.get(0).getItemId(), equalTo(item1.getId()));
+        assertThat(bookings.get(0).getItemName(), equalTo(item1.getName()));
+        assertThat(bookings.get(0).getOwnerId(), equalTo(owner1.getId()));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStart() {
+    void findPageByItemOwnerId_whenBookingNotStarted_thenFoundAsFuture() {
         Long userId = owner1.getId();
+        LocalDateTime now = LocalDateTime.now();
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStart(userId,
-                LocalDateTime.now().plusSeconds(7), LocalDateTime.now().plusSeconds(50),
-                PageRequest.ofSize(10)).getContent();
+        List<BookingSnapshot> bookings = bookingRepository.findPageByItemOwnerId(userId, BookingStatusState.FUTURE,
+                now, PageRequest.ofSize(10));
 
         assertNotNull(bookings);
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(bookings.get(0).getItem().getId(), equalTo(item1.getId()));
-        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker1.getId()));
+        assertThat(bookings.get(0).getItemId(), equalTo(item1.getId()));
+        assertThat(bookings.get(0).getBookerId(), equalTo(booker1.getId()));
+        assertThat(bookingRepository.findPageByItemOwnerId(userId, BookingStatusState.CURRENT, now,
+                PageRequest.ofSize(10)).size(), equalTo(0));
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndBeforeOrderByStart() {
-        Long userId = owner1.getId();
-
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStart(userId,
-                LocalDateTime.now().plusDays(5), PageRequest.ofSize(10)).getContent();
+    void findPageByBookerId_whenStoredPhaseNotSweptYet_thenStateFollowsStartAndEnd() {
+        Long bookerId = booker1.getId();
+        LocalDateTime started = LocalDateTime.now().plusSeconds(7);
+        LocalDateTime finished = LocalDateTime.now().plusDays(2);
 
-        assertNotNull(bookings);
-        assertThat(bookings.size(), equalTo(1));
-        assertThat(bookings.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(bookings.get(0).getItem().getId(), equalTo(item1.getId()));
-        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker1.getId()));
+        assertThat(bookingRepository.findPageByBookerId(bookerId, BookingStatusState.CURRENT, started,
+                PageRequest.ofSize(10)).get(0).getId(), equalTo(booking1.getId()));
+        assertThat(bookingRepository.findPageByBookerId(bookerId, BookingStatusState.FUTURE, started,
+                PageRequest.ofSize(10)).size(), equalTo(0));
+        assertThat(bookingRepository.findPageByBookerId(bookerId, BookingStatusState.PAST, finished,
+                PageRequest.ofSize(10)).get(0).getId(), equalTo(booking1.getId()));
+        assertThat(bookingRepository.findPageByBookerId(bookerId, BookingStatusState.CURRENT, finished,
+                PageRequest.ofSize(10)).size(), equalTo(0));
+        assertThat(bookingRepository.countByBookerId(bookerId, BookingStatusState.PAST, finished), equalTo(1L));
+        try (Stream<BookingSnapshot> bookings = bookingRepository.streamByItemOwnerId(owner1.getId(),
+                BookingStatusState.CURRENT, started)) {
+            assertThat(bookings.count(), equalTo(1L));
+        }
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartAfterOrderByStart() {
+    void updatePhase_whenStartAndEndPassed_thenBookingMovedToCurrentAndThenToPast() {
         Long userId = owner1.getId();
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStart(userId,
-                LocalDateTime.now().plusSeconds(1), PageRequest.ofSize(10)).getContent();
+        LocalDateTime now = LocalDateTime.now().plusSeconds(7);
+        int started = bookingRepository.updatePhaseToCurrentByStartNotAfter(now);
+        entityManager.clear();
 
-        assertNotNull(bookings);
+        assertThat(started, equalTo(1));
+        assertThat(bookingRepository.getReferenceById(booking1.getId()).getPhase(), equalTo(BookingPhase.CURRENT));
+        List<BookingSnapshot> bookings = bookingRepository.findPageByItemOwnerId(userId, BookingStatusState.CURRENT,
+                now, PageRequest.ofSize(10));
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(bookings.get(0).getItem().getId(), equalTo(item1.getId()));
-        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker1.getId()));
+
+        LocalDateTime later = LocalDateTime.now().plusDays(5);
+        int finished = bookingRepository.updatePhaseToPastByEndBefore(later);
+        entityManager.clear();
+
+        assertThat(finished, equalTo(2));
+        assertThat(bookingRepository.findPageByBookerId(booker1.getId(), BookingStatusState.PAST, later,
+                PageRequest.ofSize(10)).get(0).getId(), equalTo(booking1.getId()));
+        assertThat(bookingRepository.updatePhaseToPastByEndBefore(LocalDateTime.now().plusDays(5)), equalTo(0));
+    }
+
+    @Test
+    void countByItemOwnerIdAndBookerId_whenStatesGiven_thenOnlyMatchingBookingsCounted() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(bookingRepository.countByItemOwnerId(owner1.getId(), BookingStatusState.ALL, now), equalTo(1L));
+        assertThat(bookingRepository.countByItemOwnerId(owner1.getId(), BookingStatusState.FUTURE, now),
+                equalTo(1L));
+        assertThat(bookingRepository.countByItemOwnerId(owner1.getId(), BookingStatusState.PAST, now), equalTo(0L));
+        assertThat(bookingRepository.countByItemOwnerId(owner1.getId(), BookingStatusState.WAITING, now),
+                equalTo(1L));
+        assertThat(bookingRepository.countByItemOwnerId(owner2.getId(), BookingStatusState.WAITING, now),
+                equalTo(0L));
+        assertThat(bookingRepository.countByBookerId(booker2.getId(), BookingStatusState.ALL, now), equalTo(1L));
+        assertThat(bookingRepository.countByBookerId(booker2.getId(), BookingStatusState.CURRENT, now),
+                equalTo(0L));
+        assertThat(bookingRepository.countByBookerId(booker1.getId(), BookingStatusState.WAITING, now),
+                equalTo(1L));
+        assertThat(bookingRepository.countByBookerId(booker1.getId(), BookingStatusState.REJECTED, now),
+                equalTo(0L));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatusOrderByStart() {
+    void findPageByItemOwnerId_whenStateWaiting_thenWaitingBookingsReturned() {
         Long userId = owner1.getId();
 
-        List<Booking> bookings = bookingRepository.findAllByItemOwnerIdAndStatusOrderByStart(userId,
-                BookingStatus.WAITING, PageRequest.ofSize(10)).getContent();
+        List<BookingSnapshot> bookings = bookingRepository.findPageByItemOwnerId(userId, BookingStatusState.WAITING,
+                LocalDateTime.now(), PageRequest.ofSize(10));
 
         assertNotNull(bookings);
         assertThat(bookings.size(), equalTo(1));
         assertThat(bookings.get(0).getId(), equalTo(booking1.getId()));
-        assertThat(bookings.get(0).getItem().getId(), equalTo(item1.getId()));
-        assertThat(bookings.get(0).getBooker().getId(), equalTo(booker1.getId()));
+        assertThat(bookings.get(0).getItemId(), equalTo(item1.getId()));
+        assertThat(bookings.get(0).getBookerId(), equalTo(booker1.getId()));
     }
 
     @Test
@@ -190,4 +249,129 @@ class BookingRepositoryTest {
 
         assertThat(count, equalTo(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findSliceByBookerId_whenPagedWithCursor_thenEveryBookingReturnedOnceInStartDescOrder() {
+        Long bookerId = booker1.getId();
+        Booking booking3 = bookingRepository.save(Booking.builder()
+                .start(booking1.getStart())
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item2)
+                .booker(booker1)
+                .status(BookingStatus.APPROVED)
+                .build());
+        Booking booking4 = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .item(item2)
+                .booker(booker1)
+                .status(BookingStatus.WAITING)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        LocalDateTime now = LocalDateTime.now();
+
+        Slice<BookingSnapshot> firstSlice = bookingRepository.findSliceByBookerId(bookerId, BookingStatusState.ALL,
+                now, null, 2);
+        BookingSnapshot last = firstSlice.getContent().get(1);
+        Slice<BookingSnapshot> secondSlice = bookingRepository.findSliceByBookerId(bookerId, BookingStatusState.ALL,
+                now, new BookingCursor(last.getStart(), last.getId()), 2);
+
+        assertThat(firstSlice.hasNext(), equalTo(true));
+        assertThat(firstSlice.getContent().get(0).getId(), equalTo(booking4.getId()));
+        assertThat(last.getId(), equalTo(booking3.getId()));
+        assertThat(secondSlice.hasNext(), equalTo(false));
+        assertThat(secondSlice.getContent().size(), equalTo(1));
+        assertThat(secondSlice.getContent().get(0).getId(), equalTo(booking1.getId()));
+    }
+
+    @Test
+    void streamByBookerId_whenBookingsExist_thenAllReturnedInStartDescOrder() {
+        Booking booking3 = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4))
+                .item(item2)
+                .booker(booker1)
+                .status(BookingStatus.WAITING)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ids;
+        try (Stream<BookingSnapshot> bookings = bookingRepository.streamByBookerId(booker1.getId(),
+                BookingStatusState.ALL, LocalDateTime.now())) {
+            ids = bookings.map(BookingSnapshot::getId).collect(Collectors.toList());
+        }
+
+        assertThat(ids, equalTo(List.of(booking3.getId(), booking1.getId())));
+    }
+
+    @Test
+    void streamByItemOwnerId_whenStateWaiting_thenOnlyWaitingBookingsOfOwnerReturned() {
+        try (Stream<BookingSnapshot> bookings = bookingRepository.streamByItemOwnerId(owner2.getId(),
+                BookingStatusState.WAITING, LocalDateTime.now())) {
+            assertThat(bookings.count(), equalTo(0L));
+        }
+    }
+
+    @Test
+    void findSliceByItemOwnerId_whenStateWaiting_thenOnlyWaitingBookingsOfOwnerReturned() {
+        LocalDateTime now = LocalDateTime.now();
+        Slice<BookingSnapshot> slice = bookingRepository.findSliceByItemOwnerId(owner2.getId(), BookingStatusState.WAITING,
+                now, null, 10);
+
+        assertThat(slice.getContent().size(), equalTo(0));
+
+        slice = bookingRepository.findSliceByItemOwnerId(owner2.getId(), BookingStatusState.FUTURE,
+                now, null, 10);
+
+        assertThat(slice.getContent().size(), equalTo(1));
+        assertThat(slice.getContent().get(0).getId(), equalTo(booking2.getId()));
+        assertThat(slice.hasNext(), equalTo(false));
+    }
+
+    @Test
+    void findLastAndNextApproved_whenItemHasLongHistory_thenOnlyNearestBookingsPerItemReturned() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking lastBooking = null;
+        for (int i = 100; i >= 1; i--) {
+            lastBooking = bookingRepository.save(new Booking(null, now.minusDays(i), now.minusDays(i).plusHours(1),
+                    item1, booker1, BookingStatus.APPROVED));
+        }
+        Booking nextBooking = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item1,
+                booker2, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(3), now.plusDays(4), item1, booker2,
+                BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusHours(1), now.plusHours(2), item1, booker2,
+                BookingStatus.WAITING));
+        entityManager.flush();
+
+        List<NearestBooking> nearest = bookingRepository.findLastAndNextApproved(List.of(item1.getId(),
+                item2.getId()), now);
+
+        assertThat(entityManager.getEntityManager().createQuery("select count(b) from Booking as b " +
+                "where b.item = ?1 and b.status = ?2", Long.class)
+                .setParameter(1, item1)
+                .setParameter(2, BookingStatus.APPROVED)
+                .getSingleResult(), equalTo(102L));
+        assertThat(nearest.size(), equalTo(3));
+        entityManager.clear();
+        assertThat(nearest, containsInAnyOrder(
+                new NearestBooking(item1.getId(), lastBooking.getId(), booker1.getId(), storedStart(lastBooking), false),
+                new NearestBooking(item1.getId(), nextBooking.getId(), booker2.getId(), storedStart(nextBooking), true),
+                new NearestBooking(item2.getId(), booking2.getId(), booker2.getId(), storedStart(booking2), true)));
+    }
+
+    @Test
+    void findLastAndNextApproved_whenNoItems_thenEmptyListReturned() {
+        assertThat(bookingRepository.findLastAndNextApproved(List.of(), LocalDateTime.now()).size(), equalTo(0));
+    }
+
+    /**
+     * Дата начала в том виде, в каком она сохранена в базе (с точностью столбца TIMESTAMP).
+     */
+    private LocalDateTime storedStart(Booking booking) {
+        return entityManager.find(Booking.class, booking.getId()).getStart();
+    }
+}
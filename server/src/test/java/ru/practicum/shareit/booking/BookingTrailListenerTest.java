@@ -1,106 +1,104 @@
 package ru.practicum.shareit.booking;
 
-import ch.qos.logback.classic.Level;
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.read.ListAppender;
-import org.assertj.core.api.Assertions;
-import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.booking.model.BookingPhase;
+import ru.practicum.shareit.clock.RequestClock;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
 class BookingTrailListenerTest {
-    private final BookingTrailListener bookingTrailListener = new BookingTrailListener();
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+    @Mock
+    private ObjectProvider<AuditTrail> auditTrailProvider;
+    @Mock
+    private AuditTrail auditTrail;
+    @Mock
+    private ObjectProvider<RequestClock> requestClockProvider;
+    private BookingTrailListener bookingTrailListener;
     private Booking booking;
 
     @BeforeEach
     void setUp() {
-        booking = Booking.builder()
-                .id(1L)
-                .start(LocalDateTime.now().plusSeconds(5))
-                .end(LocalDateTime.now().plusDays(1))
-                .item(new Item())
-                .booker(new User())
-                .status(BookingStatus.WAITING)
-                .build();
+        bookingTrailListener = new BookingTrailListener(auditTrailProvider, requestClockProvider);
+        booking = Booking.builder().id(1L).build();
     }
 
     @Test
-    void beforeAnyUpdate_whenInvoked_thenLogUpdateOrDelete() {
-        Logger bookingTrailListenerLogger = (Logger) LoggerFactory.getLogger(BookingTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        bookingTrailListenerLogger.addAppender(listAppender);
+    void afterPersist_whenInvoked_thenCreateRecorded() {
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
 
-        bookingTrailListener.beforeAnyUpdate(booking);
+        bookingTrailListener.afterPersist(booking);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[BOOKING AUDIT] About to update/delete booking: 1", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.BOOKING, 1L, AuditAction.CREATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenBookingIdNull_thenLogAddToDatabase() {
-        booking.setId(null);
-        Logger bookingTrailListenerLogger = (Logger) LoggerFactory.getLogger(BookingTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        bookingTrailListenerLogger.addAppender(listAppender);
-
-        bookingTrailListener.beforeAnyUpdate(booking);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[BOOKING AUDIT] About to add a booking to database", Level.INFO));
+    void afterUpdate_whenInvoked_thenUpdateRecorded() {
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
+
+        bookingTrailListener.afterUpdate(booking);
+
+        verify(auditTrail).record(AuditedEntity.BOOKING, 1L, AuditAction.UPDATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenBookingIdZero_thenLogAddToDatabase() {
-        booking.setId(0L);
-        Logger bookingTrailListenerLogger = (Logger) LoggerFactory.getLogger(BookingTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        bookingTrailListenerLogger.addAppender(listAppender);
-
-        bookingTrailListener.beforeAnyUpdate(booking);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[BOOKING AUDIT] About to add a booking to database", Level.INFO));
+    void afterRemove_whenInvoked_thenDeleteRecorded() {
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
+
+        bookingTrailListener.afterRemove(booking);
+
+        verify(auditTrail).record(AuditedEntity.BOOKING, 1L, AuditAction.DELETE);
     }
 
     @Test
-    void afterAnyUpdate_whenInvoked_thenLogAddOrUpdateOrDelete() {
-        Logger bookingTrailListenerLogger = (Logger) LoggerFactory.getLogger(BookingTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        bookingTrailListenerLogger.addAppender(listAppender);
+    void afterLoad_whenInvoked_thenLoadCountedWithoutEvent() {
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
 
-        bookingTrailListener.afterAnyUpdate(booking);
+        bookingTrailListener.afterLoad(booking);
+        bookingTrailListener.afterLoad(booking);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[BOOKING AUDIT] add/update/delete complete for booking: 1", Level.INFO));
+        verify(auditTrail, times(2)).countLoad(AuditedEntity.BOOKING);
+        verify(auditTrailProvider, times(1)).getIfAvailable();
+        verifyNoMoreInteractions(auditTrail);
     }
 
     @Test
-    void afterLoad_whenInvoked_thenLogLoadedFromDatabase() {
-        Logger bookingTrailListenerLogger = (Logger) LoggerFactory.getLogger(BookingTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        bookingTrailListenerLogger.addAppender(listAppender);
+    void beforePersist_whenPhaseNotSet_thenPhaseComputedByRequestClock() {
+        when(requestClockProvider.getObject()).thenReturn(new RequestClock(Clock.fixed(NOW.toInstant(ZoneOffset.UTC),
+                ZoneOffset.UTC)));
+        booking.setStart(NOW.minusHours(1));
+        booking.setEnd(NOW.plusHours(1));
 
-        bookingTrailListener.afterLoad(booking);
+        bookingTrailListener.beforePersist(booking);
+
+        assertThat(booking.getPhase()).isEqualTo(BookingPhase.CURRENT);
+    }
+
+    @Test
+    void beforePersist_whenPhaseSet_thenPhaseKept() {
+        booking.setPhase(BookingPhase.PAST);
+
+        bookingTrailListener.beforePersist(booking);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[BOOKING AUDIT] booking loaded from database: 1", Level.INFO));
+        assertThat(booking.getPhase()).isEqualTo(BookingPhase.PAST);
+        verifyNoMoreInteractions(requestClockProvider);
     }
-}
\ No newline at end of file
+}
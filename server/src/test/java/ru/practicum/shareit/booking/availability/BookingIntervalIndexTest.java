@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookingIntervalIndex.reserveSlot(new BookingSlot(1L, 1L, base, base.plusDays(1)));
+        bookingIntervalIndex.reserveSlot(new BookingSlot(2L, 1L, base.plusDays(2), base.plusDays(3)));
+        bookingIntervalIndex.reserveSlot(new BookingSlot(3L, 2L, base, base.plusDays(1)));
+    }
+
+    @Test
+    void pruneEndedBy_whenBookingEnded_thenBookingLeavesIndex() {
+        assertThat(bookingIntervalIndex.pruneEndedBy(base.plusDays(1)), equalTo(2));
+
+        assertFalse(bookingIntervalIndex.contains(1L, 1L));
+        assertFalse(bookingIntervalIndex.contains(2L, 3L));
+        assertTrue(bookingIntervalIndex.contains(1L, 2L));
+        assertTrue(bookingIntervalIndex.isFree(2L, base, base.plusDays(1)));
+        assertFalse(bookingIntervalIndex.isFree(1L, base.plusDays(2), base.plusDays(3)));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void pruneEndedBy_whenNothingEnded_thenIndexUnchanged() {
+        assertThat(bookingIntervalIndex.pruneEndedBy(base), equalTo(0));
+
+        assertTrue(bookingIntervalIndex.contains(1L, 1L));
+        assertTrue(bookingIntervalIndex.contains(1L, 2L));
+        assertTrue(bookingIntervalIndex.contains(2L, 3L));
+    }
+
+    @Test
+    void reserveSlot_whenItemTreePrunedEmpty_thenNewSlotIndexed() {
+        bookingIntervalIndex.pruneEndedBy(base.plusDays(5));
+
+        bookingIntervalIndex.reserveSlot(new BookingSlot(4L, 2L, base.plusDays(6), base.plusDays(7)));
+
+        assertTrue(bookingIntervalIndex.contains(2L, 4L));
+        assertFalse(bookingIntervalIndex.isFree(2L, base.plusDays(6), base.plusDays(7)));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemIntervalTreeTest {
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private ItemIntervalTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new ItemIntervalTree();
+        tree.add(new BookingSlot(1L, 1L, base, base.plusDays(10)));
+        tree.add(new BookingSlot(2L, 1L, base.plusDays(1), base.plusDays(2)));
+        tree.add(new BookingSlot(3L, 1L, base.plusDays(20), base.plusDays(21)));
+    }
+
+    @Test
+    void findOverlap_whenIntervalInsideLongBooking_thenLongBookingFound() {
+        Optional<BookingSlot> overlap = tree.findOverlap(base.plusDays(5), base.plusDays(6), null);
+
+        assertTrue(overlap.isPresent());
+        assertThat(overlap.get().getBookingId(), equalTo(1L));
+    }
+
+    @Test
+    void findOverlap_whenIntervalTouchesBookingBorders_thenNothingFound() {
+        assertFalse(tree.findOverlap(base.plusDays(10), base.plusDays(20), null).isPresent());
+        assertFalse(tree.findOverlap(base.minusDays(1), base, null).isPresent());
+    }
+
+    @Test
+    void findOverlap_whenOverlappingBookingExcluded_thenNothingFound() {
+        assertFalse(tree.findOverlap(base.plusDays(20), base.plusDays(21), 3L).isPresent());
+    }
+
+    @Test
+    void remove_whenBookingRemoved_thenIntervalIsFree() {
+        assertTrue(tree.remove(1L));
+
+        assertFalse(tree.findOverlap(base.plusDays(5), base.plusDays(6), null).isPresent());
+        assertFalse(tree.remove(1L));
+        assertThat(tree.size(), equalTo(2));
+    }
+
+    @Test
+    void removeEndedBy_whenBookingsEnded_thenOnlyEndedRemoved() {
+        assertThat(tree.removeEndedBy(base.plusDays(10)), equalTo(2));
+
+        assertFalse(tree.contains(1L));
+        assertFalse(tree.contains(2L));
+        assertTrue(tree.contains(3L));
+        assertThat(tree.size(), equalTo(1));
+        assertTrue(tree.findOverlap(base.plusDays(20), base.plusDays(21), null).isPresent());
+    }
+
+    @Test
+    void findOverlap_whenManyBookingsAdded_thenOnlyOverlappingOneFound() {
+        ItemIntervalTree bigTree = new ItemIntervalTree();
+        for (long i = 0; i < 10_000; i++) {
+            bigTree.add(new BookingSlot(i, 2L, base.plusHours(2 * i), base.plusHours(2 * i + 1)));
+        }
+
+        assertThat(bigTree.findOverlap(base.plusHours(5000), base.plusHours(5001).plusMinutes(30), null)
+                .map(BookingSlot::getBookingId), equalTo(Optional.of(2500L)));
+        assertFalse(bigTree.findOverlap(base.plusHours(5001), base.plusHours(5002), null).isPresent());
+    }
+}
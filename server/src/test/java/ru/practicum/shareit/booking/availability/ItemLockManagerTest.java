@@ -0,0 +1,106 @@
+package ru.practicum.shareit.booking.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.ConcurrentBookingException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemLockManagerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemLockManager lockManager = new ItemLockManager(16, Duration.ofMillis(200), meterRegistry);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    void lockForTransaction_whenNoTransaction_thenIllegalStateExceptionThrown() {
+        assertThrows(IllegalStateException.class, () -> lockManager.lockForTransaction(1L));
+    }
+
+    @Test
+    void lockForTransaction_whenSameItemLockedByAnotherTransaction_thenWaitsAndCountsContention() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> holder = executor.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            lockManager.lockForTransaction(1L);
+            locked.countDown();
+            release.await();
+            completeTransaction();
+            return null;
+        });
+        assertTrue(locked.await(1, TimeUnit.SECONDS));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThrows(ConcurrentBookingException.class, () -> lockManager.lockForTransaction(1L));
+        release.countDown();
+        holder.get(1, TimeUnit.SECONDS);
+        lockManager.lockForTransaction(1L);
+
+        int stripe = lockManager.stripeOf(1L);
+        assertThat(lockManager.getAcquisitionCount(stripe), equalTo(3L));
+        assertThat(lockManager.getContendedCount(stripe), equalTo(1L));
+        assertThat(meterRegistry.get("shareit.booking.lock.contended").tag("stripe", String.valueOf(stripe))
+                .functionCounter().count(), equalTo(1.0));
+    }
+
+    @Test
+    void lockForTransaction_whenDifferentStripes_thenNoContention() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.lockForTransaction(1L);
+
+        executor.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            lockManager.lockForTransaction(2L);
+            completeTransaction();
+        }).get(1, TimeUnit.SECONDS);
+
+        assertThat(lockManager.getContendedCount(lockManager.stripeOf(2L)), equalTo(0L));
+        assertThat(lockManager.getStripeCount(), equalTo(16));
+    }
+
+    @Test
+    void lockAllForTransaction_whenItemsShareStripe_thenStripeAcquiredOnceAndReleasedAfterCompletion()
+            throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        lockManager.lockAllForTransaction(List.of(17L, 2L, 1L));
+
+        assertThat(lockManager.getAcquisitionCount(lockManager.stripeOf(1L)), equalTo(1L));
+        assertThat(lockManager.getAcquisitionCount(lockManager.stripeOf(2L)), equalTo(1L));
+        completeTransaction();
+        executor.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            lockManager.lockAllForTransaction(List.of(1L, 2L));
+            completeTransaction();
+        }).get(1, TimeUnit.SECONDS);
+        assertThat(lockManager.getContendedCount(lockManager.stripeOf(1L)), equalTo(0L));
+    }
+
+    private static void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+class BookingCounterTest {
+    @Autowired
+    private BookingCounter bookingCounter;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void countByBooker_whenStateDoesNotDependOnTime_thenCountCached() {
+        Cache bookerCounts = cacheManager.getCache("bookerBookingCounts");
+
+        bookingCounter.countByBooker(-4L, BookingStatusState.ALL);
+        bookingCounter.countByBooker(-4L, BookingStatusState.WAITING);
+
+        assertThat(bookerCounts.get(new SimpleKey(-4L, BookingStatusState.ALL)), notNullValue());
+        assertThat(bookerCounts.get(new SimpleKey(-4L, BookingStatusState.WAITING)), notNullValue());
+    }
+
+    @Test
+    void countByOwner_whenStateDependsOnTime_thenCountNotCached() {
+        Cache ownerCounts = cacheManager.getCache("ownerBookingCounts");
+
+        bookingCounter.countByOwner(-5L, BookingStatusState.CURRENT);
+        bookingCounter.countByOwner(-5L, BookingStatusState.PAST);
+        bookingCounter.countByOwner(-5L, BookingStatusState.FUTURE);
+
+        assertThat(ownerCounts.get(new SimpleKey(-5L, BookingStatusState.CURRENT)), nullValue());
+        assertThat(ownerCounts.get(new SimpleKey(-5L, BookingStatusState.PAST)), nullValue());
+        assertThat(ownerCounts.get(new SimpleKey(-5L, BookingStatusState.FUTURE)), nullValue());
+    }
+}
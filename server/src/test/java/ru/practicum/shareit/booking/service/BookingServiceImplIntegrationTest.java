@@ -7,12 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.BookingStatusState;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.user.User;
 
@@ -24,6 +28,8 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 @Transactional
@@ -101,6 +107,88 @@ class BookingServiceImplIntegrationTest {
         assertThat(actualBooking.getItem().getId(), equalTo(item.getId()));
     }
 
+    @Test
+    void createBookings() {
+        Long userId = 2L;
+        em.persist(owner);
+        em.persist(user);
+        em.persist(request);
+        em.persist(item);
+        em.flush();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDtoReceived> bookingDtos = List.of(
+                new BookingDtoReceived(start, start.plusHours(1), item.getId()),
+                new BookingDtoReceived(start.plusHours(2), start.plusHours(3), item.getId()),
+                new BookingDtoReceived(start.plusMinutes(30), start.plusHours(2), item.getId()));
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(bookingDtos, userId);
+        em.flush();
+
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(0).getBooking().getId(), equalTo(1L));
+        assertThat(results.get(1).getBooking().getId(), equalTo(2L));
+        assertThat(results.get(2).getBooking(), nullValue());
+        assertThat(results.get(2).getError(), startsWith("Вещь уже забронирована на указанный период"));
+        assertThat(em.createQuery("select count(b) from Booking b", Long.class).getSingleResult(), equalTo(2L));
+    }
+
+    @Test
+    void approveBookings() {
+        Long ownerId = 1L;
+        em.persist(owner);
+        em.persist(user);
+        em.persist(request);
+        em.persist(item);
+        em.persist(booking);
+        Booking secondBooking = Booking.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .item(item)
+                .booker(user)
+                .status(BookingStatus.WAITING)
+                .build();
+        em.persist(secondBooking);
+        em.flush();
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(List.of(
+                new BookingDecisionDto(booking.getId(), true),
+                new BookingDecisionDto(secondBooking.getId(), false),
+                new BookingDecisionDto(1000L, true)), ownerId);
+        em.flush();
+        em.clear();
+
+        assertThat(results.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(1).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(results.get(2).getError(), equalTo("Бронирование с id 1000 не найдено"));
+        assertThat(em.find(Booking.class, booking.getId()).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(em.find(Booking.class, secondBooking.getId()).getStatus(), equalTo(BookingStatus.REJECTED));
+        ItemSummary summary = em.find(ItemSummary.class, item.getId());
+        assertThat(summary.getLastBookingId(), equalTo(booking.getId()));
+        assertThat(summary.getNextBookingId(), nullValue());
+    }
+
+    @Test
+    void approveBooking_whenFutureBookingApproved_thenItemSummaryNextBookingUpdated() {
+        Long ownerId = 1L;
+        em.persist(owner);
+        em.persist(user);
+        em.persist(request);
+        em.persist(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+        em.persist(booking);
+        em.flush();
+
+        bookingService.approveBooking(booking.getId(), true, ownerId);
+        em.flush();
+        em.clear();
+
+        ItemSummary summary = em.find(ItemSummary.class, item.getId());
+        assertThat(summary.getNextBookingId(), equalTo(booking.getId()));
+        assertThat(summary.getNextBookerId(), equalTo(user.getId()));
+        assertThat(summary.getLastBookingId(), nullValue());
+    }
+
     @Test
     void getAllBookingsByUser() {
         Long userId = 2L;
@@ -7,29 +7,54 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.BookingIntervalIndex;
+import ru.practicum.shareit.booking.availability.BookingSlot;
+import ru.practicum.shareit.booking.availability.ItemLockManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionTarget;
 import ru.practicum.shareit.booking.dto.BookingDtoReceived;
 import ru.practicum.shareit.booking.dto.BookingDtoToReturn;
+import ru.practicum.shareit.booking.dto.BookingSliceDto;
+import ru.practicum.shareit.booking.dto.BookingSnapshot;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.event.BookingChangedEvent;
 import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.exception.InvalidCursorException;
 import ru.practicum.shareit.exception.StatusException;
 import ru.practicum.shareit.exception.UnavailableItemException;
+import ru.practicum.shareit.item.ItemIdRegistry;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSummaryProjection;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -37,8 +62,12 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -50,7 +79,27 @@ class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceVerifier userExistenceVerifier;
+    @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemIdRegistry itemIdRegistry;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private ItemLockManager itemLockManager;
+    @Mock
+    private BookingSnapshotLoader bookingSnapshotLoader;
+    @Mock
+    private BookingCounter bookingCounter;
+    @Mock
+    private ItemSummaryProjection itemSummaryProjection;
+    @Spy
+    private RequestClock requestClock = new RequestClock(Clock.systemDefaultZone());
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private AuditTrail auditTrail;
     @InjectMocks
     private BookingServiceImpl bookingService;
     @Captor
@@ -119,51 +168,122 @@ class BookingServiceImplTest {
     void createBooking_whenUserAndItemFound_thenBookingIsSaved() {
         Long bookerId = booker.getId();
         Long itemId = item.getId();
+        when(itemIdRegistry.contains(bookingDtoReceived.getItemId())).thenReturn(true);
+        when(itemIdRegistry.isAvailable(bookingDtoReceived.getItemId())).thenReturn(true);
         when(itemRepository.findById(bookingDtoReceived.getItemId())).thenReturn(Optional.of(item));
-        when(userRepository.findById(bookerId)).thenReturn(Optional.of(booker));
-        when(bookingRepository.save(BookingMapper.toBooking(bookingDtoReceived, item, booker))).thenReturn(booking);
+        when(userRepository.getReferenceById(bookerId)).thenReturn(booker);
+        when(bookingRepository.save(BookingMapper.toBooking(bookingDtoReceived, item, booker, LocalDateTime.now()))).thenReturn(booking);
 
         BookingDtoToReturn actualBooking = bookingService.createBooking(bookingDtoReceived, bookerId);
 
         verify(itemRepository).findById(bookingDtoReceived.getItemId());
-        verify(userRepository).findById(bookerId);
-        verify(bookingRepository).save(BookingMapper.toBooking(bookingDtoReceived, item, booker));
+        verify(userRepository).getReferenceById(bookerId);
+        verify(bookingRepository).save(BookingMapper.toBooking(bookingDtoReceived, item, booker, LocalDateTime.now()));
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(booking.getId(), itemId, bookerId,
+                owner.getId()));
         assertNotNull(actualBooking);
         assertThat(actualBooking.getId(), equalTo(booking.getId()));
         assertThat(actualBooking.getBooker().getId(), equalTo(bookerId));
         assertThat(actualBooking.getItem().getId(), equalTo(itemId));
     }
 
+    @Test
+    void createBooking_whenItemAlreadyBookedForPeriod_thenUnavailableItemExceptionThrown() {
+        Long bookerId = booker.getId();
+        Long itemId = item.getId();
+        when(itemIdRegistry.contains(itemId)).thenReturn(true);
+        when(itemIdRegistry.isAvailable(itemId)).thenReturn(true);
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(userRepository.getReferenceById(bookerId)).thenReturn(booker);
+        when(bookingIntervalIndex.findOverlap(eq(itemId), any(), any(), isNull()))
+                .thenReturn(Optional.of(new BookingSlot(5L, itemId, bookingDtoReceived.getStart(),
+                        bookingDtoReceived.getEnd())));
+
+        assertThrows(UnavailableItemException.class,
+                () -> bookingService.createBooking(bookingDtoReceived, bookerId));
+        verify(bookingRepository, never()).save(any());
+        verify(bookingIntervalIndex, never()).reserve(any());
+    }
+
+    @Test
+    void createBooking_whenBookingSaved_thenSlotReservedInIndex() {
+        Long bookerId = booker.getId();
+        when(itemIdRegistry.contains(bookingDtoReceived.getItemId())).thenReturn(true);
+        when(itemIdRegistry.isAvailable(bookingDtoReceived.getItemId())).thenReturn(true);
+        when(itemRepository.findById(bookingDtoReceived.getItemId())).thenReturn(Optional.of(item));
+        when(userRepository.getReferenceById(bookerId)).thenReturn(booker);
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        bookingService.createBooking(bookingDtoReceived, bookerId);
+
+        verify(bookingIntervalIndex).reserve(booking);
+    }
+
+    @Test
+    void createBookings_whenSomeEntriesInvalid_thenValidEntriesSavedAndErrorsReturnedInPlace() {
+        Long bookerId = booker.getId();
+        Item ownItem = Item.builder().id(2L).name("own").available(true).owner(booker).build();
+        BookingDtoReceived missingItem = new BookingDtoReceived(bookingDtoReceived.getStart(),
+                bookingDtoReceived.getEnd(), 1000000L);
+        BookingDtoReceived ownItemBooking = new BookingDtoReceived(bookingDtoReceived.getStart(),
+                bookingDtoReceived.getEnd(), 2L);
+        when(userRepository.getReferenceById(bookerId)).thenReturn(booker);
+        when(itemRepository.findAllById(Set.of(1L, 2L, 1000000L))).thenReturn(List.of(item, ownItem));
+        when(bookingRepository.save(BookingMapper.toBooking(bookingDtoReceived, item, booker, LocalDateTime.now()))).thenReturn(booking);
+
+        List<BookingBatchResultDto> results = bookingService.createBookings(
+                List.of(bookingDtoReceived, missingItem, ownItemBooking), bookerId);
+
+        verify(itemLockManager).lockAllForTransaction(Set.of(1L, 2L, 1000000L));
+        verify(bookingRepository).save(any());
+        verify(bookingIntervalIndex).reserve(booking);
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(booking.getId(), item.getId(), bookerId,
+                owner.getId()));
+        assertThat(results.size(), equalTo(3));
+        assertThat(results.get(0).getBooking().getId(), equalTo(booking.getId()));
+        assertThat(results.get(1).getError(), equalTo("Вещь с id 1000000 не найдена"));
+        assertThat(results.get(2).getError(), equalTo("Владелец не может бронировать свои вещи"));
+    }
+
+    @Test
+    void createBookings_whenUserNotFound_thenEntityNotFoundExceptionThrown() {
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(100L);
+
+        assertThrows(EntityNotFoundException.class,
+                () -> bookingService.createBookings(List.of(bookingDtoReceived), 100L));
+        verifyNoMoreInteractions(itemRepository, bookingRepository);
+    }
+
     @Test
     void createBooking_whenItemNotFound_thenEntityNotFoundExceptionThrown() {
         Long bookerId = booker.getId();
         Long itemId = 1000000L;
         bookingDtoReceived.setItemId(itemId);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemIdRegistry.contains(itemId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.createBooking(bookingDtoReceived, bookerId));
-        verify(itemRepository).findById(anyLong());
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verifyNoInteractions(itemRepository, userRepository, bookingRepository, itemLockManager);
     }
 
     @Test
     void createBooking_whenItemNotAvailable_thenUnavailableItemExceptionThrown() {
         Long bookerId = booker.getId();
         Long itemId = item.getId();
-        item.setAvailable(false);
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemIdRegistry.contains(itemId)).thenReturn(true);
+        when(itemIdRegistry.isAvailable(itemId)).thenReturn(false);
 
         assertThrows(UnavailableItemException.class,
                 () -> bookingService.createBooking(bookingDtoReceived, bookerId));
-        verify(itemRepository).findById(anyLong());
-        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+        verifyNoInteractions(itemRepository, userRepository, bookingRepository, itemLockManager);
     }
 
     @Test
     void createBooking_whenBookerIdAndOwnerIdAreEqual_thenEntityNotFoundExceptionThrown() {
         Long bookerId = item.getOwner().getId();
         Long itemId = item.getId();
+        when(itemIdRegistry.contains(itemId)).thenReturn(true);
+        when(itemIdRegistry.isAvailable(itemId)).thenReturn(true);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
 
         assertThrows(EntityNotFoundException.class,
@@ -176,24 +296,118 @@ class BookingServiceImplTest {
     void createBooking_whenUserNotFound_thenEntityNotFoundExceptionThrown() {
         Long bookerId = 1000000L;
         Long itemId = item.getId();
+        when(itemIdRegistry.contains(itemId)).thenReturn(true);
+        when(itemIdRegistry.isAvailable(itemId)).thenReturn(true);
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(userRepository.findById(bookerId)).thenReturn(Optional.empty());
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(bookerId);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.createBooking(bookingDtoReceived, bookerId));
         verify(itemRepository).findById(anyLong());
-        verify(userRepository).findById(anyLong());
-        verify(bookingRepository, never()).save(BookingMapper.toBooking(bookingDtoReceived, item, booker));
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(bookingRepository, never()).save(BookingMapper.toBooking(bookingDtoReceived, item, booker, LocalDateTime.now()));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
+    @Test
+    void approveBookings_whenDecisionsMixed_thenStatusesUpdatedBySetAndErrorsReturnedInPlace() {
+        Long userId = owner.getId();
+        BookingDecisionTarget waiting = new BookingDecisionTarget(1L, item.getId(), userId, booker.getId(),
+                BookingStatus.WAITING,
+                booking.getStart(), booking.getEnd());
+        BookingDecisionTarget foreign = new BookingDecisionTarget(2L, 2L, 100L, booker.getId(), BookingStatus.WAITING,
+                booking.getStart(), booking.getEnd());
+        BookingDecisionTarget approved = new BookingDecisionTarget(3L, item.getId(), userId, booker.getId(),
+                BookingStatus.APPROVED, booking.getStart(), booking.getEnd());
+        when(bookingRepository.findDecisionTargetsByIdIn(Set.of(1L, 2L, 3L, 4L)))
+                .thenReturn(List.of(waiting, foreign, approved));
+        when(bookingRepository.findDecisionTargetsByIdIn(Set.of(1L, 3L))).thenReturn(List.of(waiting, approved));
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, true),
+                new BookingDecisionDto(3L, false), new BookingDecisionDto(4L, true),
+                new BookingDecisionDto(1L, false)), userId);
+
+        verify(itemLockManager).lockAllForTransaction(Set.of(item.getId()));
+        verify(bookingIntervalIndex).reserveSlot(waiting.toSlot());
+        verify(bookingIntervalIndex).releaseSlot(approved.toSlot());
+        verify(bookingRepository).updateStatusByIdIn(Set.of(1L), BookingStatus.APPROVED);
+        verify(bookingRepository).updateStatusByIdIn(Set.of(3L), BookingStatus.REJECTED);
+        verify(auditTrail).record(AuditedEntity.BOOKING, 1L, AuditAction.UPDATE);
+        verify(auditTrail).record(AuditedEntity.BOOKING, 3L, AuditAction.UPDATE);
+        verifyNoMoreInteractions(auditTrail);
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(1L, item.getId(), booker.getId(), userId));
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(3L, item.getId(), booker.getId(), userId));
+        verify(itemSummaryProjection).refreshBookings(Set.of(item.getId()));
+        assertThat(results.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(1).getError(), equalTo("Статус бронирования может изменять только владелец"));
+        assertThat(results.get(2).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(results.get(3).getError(), equalTo("Бронирование с id 4 не найдено"));
+        assertThat(results.get(4).getError(), equalTo("Решение по бронированию с id 1 уже передано в этом запросе"));
+    }
+
+    @Test
+    void approveBookings_whenNoBookingOwned_thenNoItemLockedAndNothingUpdated() {
+        Long userId = 100L;
+        BookingDecisionTarget foreign = new BookingDecisionTarget(1L, item.getId(), owner.getId(), booker.getId(),
+                BookingStatus.WAITING, booking.getStart(), booking.getEnd());
+        when(bookingRepository.findDecisionTargetsByIdIn(Set.of(1L, 2L))).thenReturn(List.of(foreign));
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false)), userId);
+
+        assertThat(results.get(0).getError(), equalTo("Статус бронирования может изменять только владелец"));
+        assertThat(results.get(1).getError(), equalTo("Бронирование с id 2 не найдено"));
+        verifyNoInteractions(itemLockManager, auditTrail);
+        verify(bookingRepository, never()).updateStatusByIdIn(any(), any());
+    }
+
+    @Test
+    void approveBookings_whenStatusChangedBeforeLock_thenDecisionCheckedAgainstReloadedStatus() {
+        Long userId = owner.getId();
+        BookingDecisionTarget waiting = new BookingDecisionTarget(1L, item.getId(), userId, booker.getId(),
+                BookingStatus.WAITING, booking.getStart(), booking.getEnd());
+        BookingDecisionTarget approved = new BookingDecisionTarget(1L, item.getId(), userId, booker.getId(),
+                BookingStatus.APPROVED, booking.getStart(), booking.getEnd());
+        when(bookingRepository.findDecisionTargetsByIdIn(Set.of(1L)))
+                .thenReturn(List.of(waiting))
+                .thenReturn(List.of(approved));
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(
+                List.of(new BookingDecisionDto(1L, true)), userId);
+
+        verify(itemLockManager).lockAllForTransaction(Set.of(item.getId()));
+        assertThat(results.get(0).getError(), equalTo("Бронирование уже имеет статус approved"));
+        verify(bookingRepository, never()).updateStatusByIdIn(any(), any());
+    }
+
+    @Test
+    void approveBookings_whenApprovalOverlapsAnotherBooking_thenNotAppliedAndNothingUpdated() {
+        Long userId = owner.getId();
+        BookingDecisionTarget waiting = new BookingDecisionTarget(1L, item.getId(), userId, booker.getId(),
+                BookingStatus.REJECTED,
+                booking.getStart(), booking.getEnd());
+        when(bookingRepository.findDecisionTargetsByIdIn(Set.of(1L))).thenReturn(List.of(waiting));
+        when(bookingIntervalIndex.findOverlap(item.getId(), booking.getStart(), booking.getEnd(), 1L))
+                .thenReturn(Optional.of(new BookingSlot(5L, item.getId(), booking.getStart(), booking.getEnd())));
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(
+                List.of(new BookingDecisionDto(1L, true)), userId);
+
+        assertThat(results.get(0).getError(),
+                equalTo("Вещь уже забронирована на указанный период (бронирование с id 5)"));
+        verify(bookingRepository, never()).updateStatusByIdIn(any(), any());
+        verify(bookingIntervalIndex, never()).reserveSlot(any());
+        verifyNoInteractions(auditTrail);
+    }
+
     @Test
     void approveBooking_whenBookingFoundAndApproved_thenBookingStatusApprovedAndBookingUpdated() {
         Long bookingId = booking.getId();
         Boolean isApproved = true;
         Long userId = owner.getId();
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.save(booking)).thenReturn(booking);
 
         bookingService.approveBooking(bookingId, isApproved, userId);
@@ -203,6 +417,9 @@ class BookingServiceImplTest {
 
         assertThat(savedBooking.getId(), equalTo(booking.getId()));
         assertThat(savedBooking.getStatus(), equalTo(BookingStatus.APPROVED));
+        verify(itemSummaryProjection).refreshBookings(List.of(item.getId()));
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(bookingId, item.getId(), booker.getId(),
+                userId));
     }
 
     @Test
@@ -210,8 +427,8 @@ class BookingServiceImplTest {
         Long bookingId = booking.getId();
         Boolean isApproved = false;
         Long userId = owner.getId();
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(bookingRepository.save(booking)).thenReturn(booking);
 
         bookingService.approveBooking(bookingId, isApproved, userId);
@@ -223,15 +440,47 @@ class BookingServiceImplTest {
         assertThat(savedBooking.getStatus(), equalTo(BookingStatus.REJECTED));
     }
 
+    @Test
+    void approveBooking_whenRejected_thenSlotReleasedInIndex() {
+        Long bookingId = booking.getId();
+        Long userId = owner.getId();
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.contains(item.getId(), bookingId)).thenReturn(true);
+        when(bookingRepository.save(booking)).thenReturn(booking);
+
+        bookingService.approveBooking(bookingId, false, userId);
+
+        verify(bookingIntervalIndex).release(booking);
+        verify(bookingIntervalIndex, never()).reserve(any());
+    }
+
+    @Test
+    void approveBooking_whenRejectedBookingApprovedAndSlotTaken_thenUnavailableItemExceptionThrown() {
+        Long bookingId = booking.getId();
+        Long userId = owner.getId();
+        booking.setStatus(BookingStatus.REJECTED);
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingIntervalIndex.contains(item.getId(), bookingId)).thenReturn(false);
+        when(bookingIntervalIndex.findOverlap(item.getId(), booking.getStart(), booking.getEnd(), bookingId))
+                .thenReturn(Optional.of(new BookingSlot(5L, item.getId(), booking.getStart(), booking.getEnd())));
+
+        assertThrows(UnavailableItemException.class,
+                () -> bookingService.approveBooking(bookingId, true, userId));
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void approveBooking_whenBookingNotFound_thenEntityNotFoundExceptionThrown() {
         Long bookingId = 1000000L;
         Boolean isApproved = true;
         Long userId = owner.getId();
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.approveBooking(bookingId, isApproved, userId));
+        verify(itemLockManager, never()).lockForTransaction(anyLong());
     }
 
     @Test
@@ -239,13 +488,14 @@ class BookingServiceImplTest {
         Long bookingId = booking.getId();
         Boolean isApproved = false;
         Long userId = booker.getId();
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
 
         EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
                 () -> bookingService.approveBooking(bookingId, isApproved, userId));
+        verify(bookingRepository).findItemIdById(anyLong());
         verify(bookingRepository).findById(anyLong());
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verify(bookingRepository, never()).save(booking);
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
@@ -255,13 +505,15 @@ class BookingServiceImplTest {
         Long bookingId = booking.getId();
         Boolean isApproved = true;
         Long userId = 1000000L;
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(userId);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.approveBooking(bookingId, isApproved, userId));
+        verify(bookingRepository).findItemIdById(anyLong());
         verify(bookingRepository).findById(anyLong());
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verify(bookingRepository, never()).save(booking);
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
@@ -272,13 +524,14 @@ class BookingServiceImplTest {
         Boolean isApproved = true;
         Long userId = owner.getId();
         booking.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findItemIdById(bookingId)).thenReturn(Optional.of(item.getId()));
         when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
 
         UnavailableItemException exception = assertThrows(UnavailableItemException.class,
                 () -> bookingService.approveBooking(bookingId, isApproved, userId));
+        verify(bookingRepository).findItemIdById(anyLong());
         verify(bookingRepository).findById(anyLong());
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verify(bookingRepository, never()).save(booking);
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
@@ -287,13 +540,14 @@ class BookingServiceImplTest {
     void getBookingById_whenBookingFound_thenBookingIsReturned() {
         Long bookingId = booking.getId();
         Long userId = owner.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingSnapshotLoader.load(bookingId)).thenReturn(BookingMapper.toBookingSnapshot(booking));
 
         BookingDtoToReturn actualBooking = bookingService.getBookingById(bookingId, userId);
 
         assertNotNull(actualBooking);
         assertThat(actualBooking.getId(), equalTo(booking.getId()));
+        assertThat(actualBooking.getBooker().getId(), equalTo(booker.getId()));
+        assertThat(actualBooking.getItem().getName(), equalTo(item.getName()));
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -301,12 +555,12 @@ class BookingServiceImplTest {
     void getBookingById_whenUserNotFound_thenEntityNotFoundExceptionThrown() {
         Long bookingId = booking.getId();
         Long userId = 1000000L;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(userId);
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBookingById(bookingId, userId));
-        verify(userRepository).existsById(anyLong());
-        verify(bookingRepository, never()).findById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(bookingSnapshotLoader, never()).load(anyLong());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -314,13 +568,13 @@ class BookingServiceImplTest {
     void getBookingById_whenBookingNotFound_thenEntityNotFoundExceptionThrown() {
         Long bookingId = 1000000L;
         Long userId = owner.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingSnapshotLoader.load(bookingId))
+                .thenThrow(new EntityNotFoundException("Бронирование с id 1000000 не найдено"));
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBookingById(bookingId, userId));
-        verify(userRepository).existsById(anyLong());
-        verify(bookingRepository).findById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(bookingSnapshotLoader).load(anyLong());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -328,13 +582,12 @@ class BookingServiceImplTest {
     void getBookingById_whenUserIsNotOwner_thenEntityNotFoundExceptionThrown() {
         Long bookingId = booking.getId();
         Long userId = 3L;
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingSnapshotLoader.load(bookingId)).thenReturn(BookingMapper.toBookingSnapshot(booking));
 
         assertThrows(EntityNotFoundException.class,
                 () -> bookingService.getBookingById(bookingId, userId));
-        verify(userRepository).existsById(anyLong());
-        verify(bookingRepository).findById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(bookingSnapshotLoader).load(anyLong());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -344,17 +597,16 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.ALL;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any())).thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByBookerId(anyLong(), eq(state), any(), any())).thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByUser(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByBookerIdOrderByStartDesc(anyLong(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByBookerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -364,18 +616,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.CURRENT;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByBookerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByUser(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByBookerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -385,18 +636,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.PAST;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByBookerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByUser(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByBookerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -406,18 +656,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.FUTURE;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByBookerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByUser(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByBookerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -427,18 +676,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.WAITING;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByBookerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByUser(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByBookerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -448,18 +696,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.REJECTED;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByBookerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByUser(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByBookerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -469,11 +716,10 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.UNSUPPORTED_STATUS;
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.existsById(userId)).thenReturn(true);
 
         assertThrows(StatusException.class,
                 () -> bookingService.getAllBookingsByUser(userId, state, from, size));
-        verify(userRepository).existsById(any());
+        verify(userExistenceVerifier).verify(any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -483,17 +729,16 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.ALL;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdOrderByStart(anyLong(), any())).thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByItemOwnerId(anyLong(), eq(state), any(), any())).thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByOwner(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByItemOwnerIdOrderByStart(anyLong(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByItemOwnerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -503,18 +748,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.CURRENT;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStart(anyLong(), any(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByItemOwnerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByOwner(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStart(anyLong(), any(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByItemOwnerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -524,18 +768,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.PAST;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStart(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByItemOwnerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByOwner(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByItemOwnerIdAndEndBeforeOrderByStart(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByItemOwnerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -545,18 +788,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.FUTURE;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStart(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByItemOwnerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByOwner(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByItemOwnerIdAndStartAfterOrderByStart(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByItemOwnerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -566,18 +808,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.WAITING;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStart(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByItemOwnerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByOwner(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByItemOwnerIdAndStatusOrderByStart(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByItemOwnerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -587,18 +828,17 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.REJECTED;
         Integer from = 0;
         Integer size = 10;
-        Page<Booking> pagedBookings = new PageImpl<>(List.of(booking));
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(bookingRepository.findAllByItemOwnerIdAndStatusOrderByStart(anyLong(), any(), any()))
-                .thenReturn(pagedBookings);
+        List<BookingSnapshot> bookings = List.of(BookingMapper.toBookingSnapshot(booking));
+        when(bookingRepository.findPageByItemOwnerId(anyLong(), eq(state), any(), any()))
+                .thenReturn(bookings);
 
         List<BookingDtoToReturn> actualBookings = bookingService.getAllBookingsByOwner(userId, state, from, size);
 
         assertNotNull(actualBookings);
         assertThat(actualBookings.size(), equalTo(1));
         assertThat(actualBookings.get(0).getId(), equalTo(booking.getId()));
-        verify(userRepository).existsById(any());
-        verify(bookingRepository).findAllByItemOwnerIdAndStatusOrderByStart(anyLong(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(bookingRepository).findPageByItemOwnerId(anyLong(), eq(state), any(), any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
 
@@ -608,11 +848,100 @@ class BookingServiceImplTest {
         BookingStatusState state = BookingStatusState.UNSUPPORTED_STATUS;
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.existsById(userId)).thenReturn(true);
 
         assertThrows(StatusException.class,
                 () -> bookingService.getAllBookingsByOwner(userId, state, from, size));
-        verify(userRepository).existsById(any());
+        verify(userExistenceVerifier).verify(any());
         verifyNoMoreInteractions(bookingRepository, userRepository);
     }
-}
\ No newline at end of file
+
+    @Test
+    void countBookingsByOwner_whenStateSupported_thenCountFromCounterReturned() {
+        Long ownerId = owner.getId();
+        when(bookingCounter.countByOwner(ownerId, BookingStatusState.WAITING)).thenReturn(3L);
+
+        long count = bookingService.countBookingsByOwner(ownerId, BookingStatusState.WAITING);
+
+        assertThat(count, equalTo(3L));
+        verify(userExistenceVerifier).verify(ownerId);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void countBookingsByUser_whenStateUnsupported_thenStatusExceptionThrownBeforeCounting() {
+        Long userId = booker.getId();
+
+        assertThrows(StatusException.class,
+                () -> bookingService.countBookingsByUser(userId, BookingStatusState.UNSUPPORTED_STATUS));
+        verifyNoInteractions(bookingCounter);
+    }
+
+    @Test
+    void getBookingsSliceByUser_whenSliceHasNext_thenCursorOfLastBookingReturned() {
+        Long userId = booker.getId();
+        when(bookingRepository.findSliceByBookerId(eq(userId), eq(BookingStatusState.ALL), any(), isNull(), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.toBookingSnapshot(booking)), PageRequest.of(0, 1), true));
+
+        BookingSliceDto slice = bookingService.getBookingsSliceByUser(userId, BookingStatusState.ALL, "", 1);
+
+        assertThat(slice.getBookings().size(), equalTo(1));
+        assertThat(BookingCursor.decode(slice.getNextCursor()),
+                equalTo(new BookingCursor(booking.getStart(), booking.getId())));
+    }
+
+    @Test
+    void getBookingsSliceByOwner_whenCursorGiven_thenDecodedCursorPassedToRepository() {
+        Long ownerId = owner.getId();
+        BookingCursor cursor = new BookingCursor(booking.getStart(), booking.getId());
+        when(bookingRepository.findSliceByItemOwnerId(eq(ownerId), eq(BookingStatusState.PAST), any(), eq(cursor),
+                eq(10))).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        BookingSliceDto slice = bookingService.getBookingsSliceByOwner(ownerId, BookingStatusState.PAST,
+                cursor.encode(), 10);
+
+        assertThat(slice.getBookings().size(), equalTo(0));
+        assertThat(slice.getNextCursor(), equalTo(null));
+    }
+
+    @Test
+    void getBookingsSliceByUser_whenCursorMalformed_thenInvalidCursorExceptionThrown() {
+        Long userId = booker.getId();
+
+        assertThrows(InvalidCursorException.class,
+                () -> bookingService.getBookingsSliceByUser(userId, BookingStatusState.ALL, "not-a-cursor", 10));
+    }
+
+    @Test
+    void exportBookingsByUser_whenInvoked_thenEveryStreamedBookingPassedToActionAndStreamClosed() {
+        Long userId = booker.getId();
+        boolean[] closed = new boolean[1];
+        when(bookingRepository.streamByBookerId(eq(userId), eq(BookingStatusState.ALL), any()))
+                .thenReturn(Stream.of(BookingMapper.toBookingSnapshot(booking)).onClose(() -> closed[0] = true));
+        List<BookingDtoToReturn> exported = new ArrayList<>();
+
+        bookingService.exportBookingsByUser(userId, BookingStatusState.ALL, exported::add);
+
+        assertThat(exported, equalTo(List.of(BookingMapper.toBookingDtoToReturn(booking))));
+        assertThat(closed[0], equalTo(true));
+    }
+
+    @Test
+    void exportBookingsByOwner_whenStateUnsupported_thenStatusExceptionThrownBeforeQuery() {
+        Long ownerId = owner.getId();
+
+        assertThrows(StatusException.class, () -> bookingService.exportBookingsByOwner(ownerId,
+                BookingStatusState.UNSUPPORTED_STATUS, dto -> { }));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void exportBookingsByOwner_whenOwnerNotFound_thenEntityNotFoundExceptionThrown() {
+        Long ownerId = 99L;
+        doThrow(new EntityNotFoundException("Пользователь с id 99 не найден"))
+                .when(userExistenceVerifier).verify(ownerId);
+
+        assertThrows(EntityNotFoundException.class, () -> bookingService.exportBookingsByOwner(ownerId,
+                BookingStatusState.ALL, dto -> { }));
+        verifyNoInteractions(bookingRepository);
+    }
+}
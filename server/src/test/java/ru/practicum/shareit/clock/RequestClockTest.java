@@ -0,0 +1,83 @@
+package ru.practicum.shareit.clock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.sameInstance;
+
+class RequestClockTest {
+    private final MutableClock clock = new MutableClock();
+    private final RequestClock requestClock = new RequestClock(clock);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void now_whenCalledTwiceWithinRequest_thenSameMomentReturned() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        LocalDateTime first = requestClock.now();
+        clock.advance(Duration.ofSeconds(5));
+        LocalDateTime second = requestClock.now();
+
+        assertThat(second, sameInstance(first));
+    }
+
+    @Test
+    void now_whenNewRequest_thenMomentTakenAgain() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        LocalDateTime first = requestClock.now();
+        clock.advance(Duration.ofSeconds(5));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        LocalDateTime second = requestClock.now();
+
+        assertThat(Duration.between(first, second), equalTo(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void now_whenOutsideRequest_thenCurrentTimeOfClockReturned() {
+        LocalDateTime first = requestClock.now();
+        clock.advance(Duration.ofSeconds(5));
+
+        assertThat(requestClock.now(), greaterThan(first));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2024-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -1,97 +1,64 @@
 package ru.practicum.shareit.comment;
 
-import ch.qos.logback.classic.Level;
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.read.ListAppender;
-import org.assertj.core.api.Assertions;
-import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.slf4j.LoggerFactory;
-
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
 class CommentTrailListenerTest {
-    private final CommentTrailListener commentTrailListener = new CommentTrailListener();
+    @Mock
+    private ObjectProvider<AuditTrail> auditTrailProvider;
+    @Mock
+    private AuditTrail auditTrail;
+    private CommentTrailListener commentTrailListener;
     private Comment comment;
 
     @BeforeEach
     void setUp() {
-        comment = Comment.builder()
-                .id(1L)
-                .build();
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
+        commentTrailListener = new CommentTrailListener(auditTrailProvider);
+        comment = Comment.builder().id(1L).build();
     }
 
     @Test
-    void beforeAnyUpdate_whenInvoked_thenLogUpdateOrDelete() {
-        Logger commentTrailListenerLogger = (Logger) LoggerFactory.getLogger(CommentTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        commentTrailListenerLogger.addAppender(listAppender);
-
-        commentTrailListener.beforeAnyUpdate(comment);
+    void afterPersist_whenInvoked_thenCreateRecorded() {
+        commentTrailListener.afterPersist(comment);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[COMMENT AUDIT] About to update/delete comment: 1", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.COMMENT, 1L, AuditAction.CREATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenCommentIdNull_thenLogAddToDatabase() {
-        comment.setId(null);
-        Logger commentTrailListenerLogger = (Logger) LoggerFactory.getLogger(CommentTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        commentTrailListenerLogger.addAppender(listAppender);
+    void afterUpdate_whenInvoked_thenUpdateRecorded() {
+        commentTrailListener.afterUpdate(comment);
 
-        commentTrailListener.beforeAnyUpdate(comment);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[COMMENT AUDIT] About to add a comment to database", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.COMMENT, 1L, AuditAction.UPDATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenCommentIdZero_thenLogAddToDatabase() {
-        comment.setId(0L);
-        Logger commentTrailListenerLogger = (Logger) LoggerFactory.getLogger(CommentTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        commentTrailListenerLogger.addAppender(listAppender);
-
-        commentTrailListener.beforeAnyUpdate(comment);
+    void afterRemove_whenInvoked_thenDeleteRecorded() {
+        commentTrailListener.afterRemove(comment);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[COMMENT AUDIT] About to add a comment to database", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.COMMENT, 1L, AuditAction.DELETE);
     }
 
     @Test
-    void afterAnyUpdate_whenInvoked_thenLogAddOrUpdateOrDelete() {
-        Logger commentTrailListenerLogger = (Logger) LoggerFactory.getLogger(CommentTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        commentTrailListenerLogger.addAppender(listAppender);
-
-        commentTrailListener.afterAnyUpdate(comment);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[COMMENT AUDIT] add/update/delete complete for comment: 1", Level.INFO));
-    }
-
-    @Test
-    void afterLoad_whenInvoked_thenLogLoadedFromDatabase() {
-        Logger commentTrailListenerLogger = (Logger) LoggerFactory.getLogger(CommentTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        commentTrailListenerLogger.addAppender(listAppender);
-
+    void afterLoad_whenInvoked_thenLoadCountedWithoutEvent() {
+        commentTrailListener.afterLoad(comment);
         commentTrailListener.afterLoad(comment);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[COMMENT AUDIT] comment loaded from database: 1", Level.INFO));
+        verify(auditTrail, times(2)).countLoad(AuditedEntity.COMMENT);
+        verify(auditTrailProvider, times(1)).getIfAvailable();
+        verifyNoMoreInteractions(auditTrail);
     }
-
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+class CacheConfigTest {
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void cacheManager_whenConfigured_thenOnlyDeclaredCachesExist() {
+        assertThat(cacheManager.getCacheNames(), containsInAnyOrder("users", "items", "bookings", "requests", "versions",
+                "bookerBookingCounts", "ownerBookingCounts"));
+        assertThat(cacheManager.getCache("unknown"), nullValue());
+    }
+
+    @Test
+    void cacheManager_whenCacheUsed_thenHitsAndMissesExportedAsMetrics() {
+        Cache cache = cacheManager.getCache("users");
+        double hitsBefore = meterRegistry.get("cache.gets").tag("name", "users").tag("result", "hit")
+                .functionCounter().count();
+
+        cache.put(-1L, "user");
+        cache.get(-1L);
+        cache.get(-2L);
+
+        assertThat(meterRegistry.get("cache.gets").tag("name", "users").tag("result", "hit")
+                .functionCounter().count(), equalTo(hitsBefore + 1));
+        assertThat(meterRegistry.find("cache.evictions").tag("name", "items").meter(), notNullValue());
+        cache.evict(-1L);
+    }
+
+    @Test
+    void cacheManager_whenPutInsideTransaction_thenValueVisibleOnlyAfterCommit() {
+        Cache cache = cacheManager.getCache("items");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.put(-1L, "item");
+
+            assertThat(cache.get(-1L), nullValue());
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(cache.get(-1L, String.class), equalTo("item"));
+        cache.evict(-1L);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingStatusState;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest
+class CacheEvictionListenerTest {
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void onCommentCreated_whenTransactionCommitted_thenItemEvictedOnlyAfterCommit() {
+        Cache items = cacheManager.getCache("items");
+        items.put(-1L, "item");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new CommentCreatedEvent(-10L, -1L));
+
+            assertThat(items.get(-1L), notNullValue());
+        });
+
+        assertThat(items.get(-1L), nullValue());
+    }
+
+    @Test
+    void onItemChanged_whenTransactionRolledBack_thenNothingEvicted() {
+        Cache items = cacheManager.getCache("items");
+        Cache requests = cacheManager.getCache("requests");
+        items.put(-1L, "item");
+        requests.put(-2L, "request");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ItemChangedEvent(-1L, -2L));
+            status.setRollbackOnly();
+        });
+
+        assertThat(items.get(-1L), notNullValue());
+        assertThat(requests.get(-2L), notNullValue());
+    }
+
+    @Test
+    void onItemChanged_whenItemAnswersRequest_thenItemAndRequestEvicted() {
+        Cache items = cacheManager.getCache("items");
+        Cache requests = cacheManager.getCache("requests");
+        items.put(-1L, "item");
+        requests.put(-2L, "request");
+
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new ItemChangedEvent(-1L, -2L)));
+
+        assertThat(items.get(-1L), nullValue());
+        assertThat(requests.get(-2L), nullValue());
+    }
+
+    @Test
+    void onBookingChanged_whenNoTransaction_thenBookingAndItemEvictedImmediately() {
+        Cache bookings = cacheManager.getCache("bookings");
+        Cache items = cacheManager.getCache("items");
+        bookings.put(-3L, "booking");
+        items.put(-1L, "item");
+
+        eventPublisher.publishEvent(new BookingChangedEvent(-3L, -1L, -4L, -5L));
+
+        assertThat(bookings.get(-3L), nullValue());
+        assertThat(items.get(-1L), nullValue());
+    }
+
+    @Test
+    void onBookingChanged_whenCommitted_thenCountsOfBookerAndOwnerEvictedForAllStates() {
+        Cache bookerCounts = cacheManager.getCache("bookerBookingCounts");
+        Cache ownerCounts = cacheManager.getCache("ownerBookingCounts");
+        bookerCounts.put(new SimpleKey(-4L, BookingStatusState.ALL), 1L);
+        bookerCounts.put(new SimpleKey(-4L, BookingStatusState.WAITING), 1L);
+        bookerCounts.put(new SimpleKey(-6L, BookingStatusState.ALL), 2L);
+        ownerCounts.put(new SimpleKey(-5L, BookingStatusState.REJECTED), 3L);
+
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new BookingChangedEvent(-3L, -1L, -4L, -5L)));
+
+        assertThat(bookerCounts.get(new SimpleKey(-4L, BookingStatusState.ALL)), nullValue());
+        assertThat(bookerCounts.get(new SimpleKey(-4L, BookingStatusState.WAITING)), nullValue());
+        assertThat(ownerCounts.get(new SimpleKey(-5L, BookingStatusState.REJECTED)), nullValue());
+        assertThat(bookerCounts.get(new SimpleKey(-6L, BookingStatusState.ALL)), notNullValue());
+    }
+
+    @Test
+    void onItemChanged_whenCommitted_thenItemAndRequestGetNewVersionsAndOtherVersionsKept() {
+        ResourceVersion item = resourceVersions.current(ResourceVersions.ITEMS, -1L);
+        ResourceVersion request = resourceVersions.current(ResourceVersions.REQUESTS, -2L);
+        ResourceVersion user = resourceVersions.current(ResourceVersions.USERS, -1L);
+
+        assertThat(resourceVersions.current(ResourceVersions.ITEMS, -1L), equalTo(item));
+
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new ItemChangedEvent(-1L, -2L)));
+
+        assertThat(resourceVersions.current(ResourceVersions.ITEMS, -1L).getTag(), not(equalTo(item.getTag())));
+        assertThat(resourceVersions.current(ResourceVersions.REQUESTS, -2L).getTag(), not(equalTo(request.getTag())));
+        assertThat(resourceVersions.current(ResourceVersions.USERS, -1L), equalTo(user));
+    }
+}
@@ -9,17 +9,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.comment.CommentDtoRequest;
 import ru.practicum.shareit.comment.CommentDtoResponse;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -27,6 +31,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 
@@ -38,6 +44,9 @@ class ItemControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ResourceVersions resourceVersions;
+    private final ResourceVersion version = new ResourceVersion("v1", Instant.parse("2024-01-01T10:00:00Z"));
 
     private final ItemDtoRequest itemDtoRequest = ItemDtoRequest.builder()
             .id(1L)
@@ -71,11 +80,14 @@ class ItemControllerTest {
         Long itemId = 1L;
         Long userId = 1L;
         ItemDtoResponse expectedItem = new ItemDtoResponse();
+        when(resourceVersions.current(ResourceVersions.ITEMS, itemId)).thenReturn(version);
         when(itemService.getItemById(anyLong(), anyLong())).thenReturn(expectedItem);
 
         String response = mockMvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_REQUEST_HEADER, userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1-0.0\""))
+                .andExpect(header().exists("Last-Modified"))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -84,6 +96,20 @@ class ItemControllerTest {
         assertEquals(objectMapper.writeValueAsString(expectedItem), response);
     }
 
+    @Test
+    @SneakyThrows
+    void getItemById_whenIfNoneMatchEqualsCurrentETag_thenResponseStatusNotModifiedWithoutBody() {
+        Long itemId = 1L;
+        when(resourceVersions.current(ResourceVersions.ITEMS, itemId)).thenReturn(version);
+        when(itemService.getItemById(eq(itemId), anyLong())).thenReturn(new ItemDtoResponse());
+
+        mockMvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_REQUEST_HEADER, 1L)
+                        .header("If-None-Match", "\"v1-0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @SneakyThrows
     void search_whenInvokedWithValidParams_thenResponseStatusOkWithListOfItemDtoInBody() {
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.registry.IdScanner;
+
+import java.sql.ResultSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemIdRegistryTest {
+    @Mock
+    private IdScanner idScanner;
+    @InjectMocks
+    private ItemIdRegistry itemIdRegistry;
+
+    @Test
+    void afterSingletonsInstantiated_whenItemsInDatabase_thenExistingAndAvailableIdsLoaded() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L, 2L);
+        when(rs.getBoolean(2)).thenReturn(true, false);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(idScanner).scan(anyString(), any(RowCallbackHandler.class));
+
+        itemIdRegistry.afterSingletonsInstantiated();
+
+        assertThat(itemIdRegistry.contains(1L), equalTo(true));
+        assertThat(itemIdRegistry.isAvailable(1L), equalTo(true));
+        assertThat(itemIdRegistry.contains(2L), equalTo(true));
+        assertThat(itemIdRegistry.isAvailable(2L), equalTo(false));
+        assertThat(itemIdRegistry.contains(3L), equalTo(false));
+    }
+
+    @Test
+    void itemSaved_whenAvailabilityChanged_thenAvailableIdsFollow() {
+        Item item = Item.builder().id(1L).available(true).build();
+        itemIdRegistry.itemSaved(item);
+        assertThat(itemIdRegistry.isAvailable(1L), equalTo(true));
+
+        item.setAvailable(false);
+        itemIdRegistry.itemSaved(item);
+
+        assertThat(itemIdRegistry.contains(1L), equalTo(true));
+        assertThat(itemIdRegistry.isAvailable(1L), equalTo(false));
+    }
+
+    @Test
+    void itemDeleted_whenInvoked_thenItemNeitherExistsNorAvailable() {
+        itemIdRegistry.itemSaved(Item.builder().id(1L).available(true).build());
+
+        itemIdRegistry.itemDeleted(1L);
+
+        assertThat(itemIdRegistry.contains(1L), equalTo(false));
+        assertThat(itemIdRegistry.isAvailable(1L), equalTo(false));
+    }
+}
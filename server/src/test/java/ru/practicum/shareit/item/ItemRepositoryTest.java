@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
@@ -57,17 +58,19 @@ class ItemRepositoryTest {
                 .request(null)
                 .build();
 
-        userRepository.save(owner1);
-        userRepository.save(owner2);
-        itemRepository.save(item1);
-        itemRepository.save(item2);
+        owner1 = userRepository.save(owner1);
+        owner2 = userRepository.save(owner2);
+        item1.setOwner(owner1);
+        item2.setOwner(owner2);
+        item1 = itemRepository.save(item1);
+        item2 = itemRepository.save(item2);
     }
 
     @Test
     void findByNameOrDescriptionContainingIgnoreCase_whenInvoked_thenReturnListOfAvailableItemsWithNameOrDescriptionContaingText() {
         String text = "nAMe";
 
-        List<Item> items = itemRepository.findByNameOrDescriptionContainingIgnoreCase(text,
+        List<ItemView> items = itemRepository.findByNameOrDescriptionContainingIgnoreCase(text,
                 PageRequest.ofSize(10));
 
         assertNotNull(items);
@@ -78,5 +81,13 @@ class ItemRepositoryTest {
         assertThat(items.get(0).getAvailable(), equalTo(true));
     }
 
+    @Test
+    void findViewsByOwnerId_whenItemHasNoRequest_thenViewWithNullRequestIdReturned() {
+        List<ItemView> items = itemRepository.findViewsByOwnerId(owner2.getId(), PageRequest.ofSize(10));
+
+        assertThat(items, equalTo(List.of(new ItemView(item2.getId(), item2.getName(), item2.getDescription(),
+                true, null))));
+    }
+
 
 }
\ No newline at end of file
@@ -1,98 +1,65 @@
 package ru.practicum.shareit.item;
 
-import ch.qos.logback.classic.Level;
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.read.ListAppender;
-import org.assertj.core.api.Assertions;
-import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.slf4j.LoggerFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
 import ru.practicum.shareit.item.model.Item;
 
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
 class ItemTrailListenerTest {
-    private final ItemTrailListener itemTrailListener = new ItemTrailListener();
+    @Mock
+    private ObjectProvider<AuditTrail> auditTrailProvider;
+    @Mock
+    private AuditTrail auditTrail;
+    private ItemTrailListener itemTrailListener;
     private Item item;
 
     @BeforeEach
     void setUp() {
-        item = Item.builder()
-                .id(1L)
-                .build();
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
+        itemTrailListener = new ItemTrailListener(auditTrailProvider);
+        item = Item.builder().id(1L).build();
     }
 
     @Test
-    void beforeAnyUpdate_whenInvoked_thenLogUpdateOrDelete() {
-        Logger itemTrailListenerLogger = (Logger) LoggerFactory.getLogger(ItemTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        itemTrailListenerLogger.addAppender(listAppender);
-
-        itemTrailListener.beforeAnyUpdate(item);
+    void afterPersist_whenInvoked_thenCreateRecorded() {
+        itemTrailListener.afterPersist(item);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[ITEM AUDIT] About to update/delete item: 1", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.ITEM, 1L, AuditAction.CREATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenIdNull_thenLogAddToDatabase() {
-        item.setId(null);
-        Logger itemTrailListenerLogger = (Logger) LoggerFactory.getLogger(ItemTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        itemTrailListenerLogger.addAppender(listAppender);
+    void afterUpdate_whenInvoked_thenUpdateRecorded() {
+        itemTrailListener.afterUpdate(item);
 
-        itemTrailListener.beforeAnyUpdate(item);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[ITEM AUDIT] About to add a item to database", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.ITEM, 1L, AuditAction.UPDATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenIdZero_thenLogAddToDatabase() {
-        item.setId(0L);
-        Logger itemTrailListenerLogger = (Logger) LoggerFactory.getLogger(ItemTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        itemTrailListenerLogger.addAppender(listAppender);
-
-        itemTrailListener.beforeAnyUpdate(item);
+    void afterRemove_whenInvoked_thenDeleteRecorded() {
+        itemTrailListener.afterRemove(item);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[ITEM AUDIT] About to add a item to database", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.ITEM, 1L, AuditAction.DELETE);
     }
 
     @Test
-    void afterAnyUpdate_whenInvoked_thenLogAddOrUpdateOrDelete() {
-        Logger itemTrailListenerLogger = (Logger) LoggerFactory.getLogger(ItemTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        itemTrailListenerLogger.addAppender(listAppender);
-
-        itemTrailListener.afterAnyUpdate(item);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[ITEM AUDIT] add/update/delete complete for item: 1", Level.INFO));
-    }
-
-    @Test
-    void afterLoad_whenInvoked_thenLogLoadedFromDatabase() {
-        Logger itemTrailListenerLogger = (Logger) LoggerFactory.getLogger(ItemTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        itemTrailListenerLogger.addAppender(listAppender);
-
+    void afterLoad_whenInvoked_thenLoadCountedWithoutEvent() {
+        itemTrailListener.afterLoad(item);
         itemTrailListener.afterLoad(item);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[ITEM AUDIT] item loaded from database: 1", Level.INFO));
+        verify(auditTrail, times(2)).countLoad(AuditedEntity.ITEM);
+        verify(auditTrailProvider, times(1)).getIfAvailable();
+        verifyNoMoreInteractions(auditTrail);
     }
-
-
-}
\ No newline at end of file
+}
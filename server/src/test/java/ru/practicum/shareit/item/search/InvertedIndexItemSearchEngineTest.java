@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIndexItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private InvertedIndexItemSearchEngine engine;
+    private Item drill;
+    private Item screwdriver;
+    private Item hammer;
+
+    @BeforeEach
+    void setUp() {
+        engine = new InvertedIndexItemSearchEngine(itemRepository, 128);
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@gmail.com")
+                .build();
+        drill = new Item(1L, "Дрель", "Простая дрель", true, owner);
+        screwdriver = new Item(2L, "Аккумуляторная отвертка", "Шуруповерт, можно как дрель", true, owner);
+        hammer = new Item(3L, "Молоток", "Ёмкий ящик с гвоздями", true, owner);
+        engine.index(drill);
+        engine.index(screwdriver);
+        engine.index(hammer);
+    }
+
+    @Test
+    void searchIds_whenWordInNameAndDescription_thenNameMatchRankedFirst() {
+        assertThat(engine.searchIds("дРеЛь", 0, 10), contains(1L, 2L));
+    }
+
+    @Test
+    void searchIds_whenPrefix_thenWordsStartingWithPrefixMatched() {
+        assertThat(engine.searchIds("отв", 0, 10), contains(2L));
+        assertThat(engine.searchIds("емк", 0, 10), contains(3L));
+    }
+
+    @Test
+    void searchIds_whenSeveralWords_thenAllWordsMustMatch() {
+        assertThat(engine.searchIds("аккумуляторная дрель", 0, 10), contains(2L));
+        assertThat(engine.searchIds("молоток дрель", 0, 10), empty());
+    }
+
+    @Test
+    void searchIds_whenOffsetAndLimit_thenPageOfRankedIdsReturned() {
+        assertThat(engine.searchIds("дрель", 1, 1), contains(2L));
+        assertThat(engine.searchIds("дрель", 2, 1), empty());
+    }
+
+    @Test
+    void index_whenItemUpdatedOrBecameUnavailable_thenIndexFollowsItem() {
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный");
+        engine.index(drill);
+
+        assertThat(engine.searchIds("дрель", 0, 10), contains(2L));
+        assertThat(engine.searchIds("перф", 0, 10), contains(1L));
+
+        screwdriver.setAvailable(false);
+        engine.index(screwdriver);
+
+        assertThat(engine.searchIds("дрель", 0, 10), empty());
+        assertThat(engine.size(), equalTo(2));
+    }
+
+    @Test
+    void remove_whenItemDeleted_thenItsWordsDroppedFromIndex() {
+        int terms = engine.termCount();
+
+        engine.remove(hammer.getId());
+
+        assertThat(engine.searchIds("молоток", 0, 10), empty());
+        assertThat(engine.termCount(), equalTo(terms - 5));
+    }
+
+    @Test
+    void search_whenItemsFound_thenItemsReturnedInRankOrder() {
+        ItemView drillView = new ItemView(drill.getId(), drill.getName(), drill.getDescription(), true, null);
+        ItemView screwdriverView = new ItemView(screwdriver.getId(), screwdriver.getName(),
+                screwdriver.getDescription(), true, null);
+        when(itemRepository.findViewsByIdIn(anyCollection())).thenReturn(List.of(screwdriverView, drillView));
+
+        List<ItemView> found = engine.search("дрель", PageRequest.of(0, 10));
+
+        assertThat(found, contains(drillView, screwdriverView));
+    }
+
+    @Test
+    void tokenize_whenPunctuationAndCase_thenLowerCaseWordsReturned() {
+        assertThat(InvertedIndexItemSearchEngine.tokenize("Дрель, 220В! Ёлка"), contains("дрель", "220в", "елка"));
+    }
+}
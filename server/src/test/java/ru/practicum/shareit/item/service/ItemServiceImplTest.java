@@ -7,43 +7,61 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.NearestBooking;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.clock.RequestClock;
 import ru.practicum.shareit.comment.Comment;
 import ru.practicum.shareit.comment.CommentDtoRequest;
 import ru.practicum.shareit.comment.CommentDtoResponse;
 import ru.practicum.shareit.comment.CommentMapper;
 import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.comment.CommentView;
+import ru.practicum.shareit.event.CommentCreatedEvent;
+import ru.practicum.shareit.event.ItemChangedEvent;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.exception.UnavailableItemException;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemIdRegistry;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoResponse;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.Request;
 import ru.practicum.shareit.request.RequestRepository;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -53,13 +71,27 @@ class ItemServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
+    private ItemIdRegistry itemIdRegistry;
+    @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceVerifier userExistenceVerifier;
+    @Mock
     private CommentRepository commentRepository;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
     private RequestRepository requestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemSnapshotLoader itemSnapshotLoader;
+    @Mock
+    private ItemSummaryProjection itemSummaryProjection;
+    @Spy
+    private RequestClock requestClock = new RequestClock(Clock.systemDefaultZone());
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private ItemServiceImpl itemService;
     @Captor
@@ -75,6 +107,8 @@ class ItemServiceImplTest {
     private User booker;
     private Comment comment;
     private CommentDtoRequest commentDtoRequest;
+    private ItemView itemView;
+    private CommentView commentView;
 
     @BeforeEach
     void setUp() {
@@ -140,6 +174,10 @@ class ItemServiceImplTest {
         commentDtoRequest = CommentDtoRequest.builder()
                 .text("commentDtoRequest_text")
                 .build();
+
+        itemView = new ItemView(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), null);
+        commentView = new CommentView(item.getId(), comment.getId(), comment.getText(), booker.getName(),
+                comment.getCreated());
     }
 
     @Test
@@ -147,20 +185,26 @@ class ItemServiceImplTest {
         Long userId = owner.getId();
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.existsById(userId)).thenReturn(true);
-        when(itemRepository.findByOwnerId(anyLong(), any())).thenReturn(List.of(item));
-        when(bookingRepository.findByItemInAndStatus(anyList(), any(), any())).thenReturn(List.of(booking));
-        when(commentRepository.findByItemIn(anyList(), any())).thenReturn(List.of(comment));
+        when(itemRepository.findViewsByOwnerId(anyLong(), any())).thenReturn(List.of(itemView));
+        ItemSummary summary = ItemSummary.empty(item.getId());
+        summary.setBookings(null, new NearestBooking(item.getId(), booking.getId(), booker.getId(),
+                booking.getStart(), true));
+        summary.setCommentCount(1);
+        when(itemSummaryProjection.findByItemIds(eq(List.of(item.getId())), any()))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(commentRepository.findViewsByItemIdIn(anyList(), any())).thenReturn(List.of(commentView));
 
         List<ItemDtoResponse> actualItems = itemService.getItems(userId, from, size);
 
         assertNotNull(actualItems);
         assertThat(actualItems.size(), equalTo(1));
         assertThat(actualItems.get(0).getId(), equalTo(item.getId()));
-        verify(userRepository).existsById(any());
-        verify(itemRepository).findByOwnerId(anyLong(), any());
-        verify(bookingRepository).findByItemInAndStatus(anyList(), any(), any());
+        verify(userExistenceVerifier).verify(any());
+        verify(itemRepository).findViewsByOwnerId(anyLong(), any());
+        verify(itemSummaryProjection).findByItemIds(eq(List.of(item.getId())), any());
         verifyNoMoreInteractions(userRepository, itemRepository, bookingRepository);
+        assertThat(actualItems.get(0).getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(actualItems.get(0).getLastBooking(), nullValue());
     }
 
     @Test
@@ -168,66 +212,78 @@ class ItemServiceImplTest {
         Long userId = owner.getId();
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.existsById(userId)).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(userId);
 
         assertThrows(EntityNotFoundException.class,
                 () -> itemService.getItems(userId, from, size));
 
-        verify(userRepository).existsById(any());
+        verify(userExistenceVerifier).verify(any());
         verifyNoMoreInteractions(userRepository, itemRepository, bookingRepository);
     }
 
     @Test
-    void getItemById_whenItemIsFoundAndUserIsOwner_thenItemIsReturned() {
+    void getItemById_whenItemIsFoundAndUserIsOwner_thenItemWithLastAndNextBookingsIsReturned() {
         Long itemId = item.getId();
         Long userId = owner.getId();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemAndStatus(any(), any(), any())).thenReturn(List.of(booking));
-        when(commentRepository.findByItem(any(Item.class))).thenReturn(List.of(comment));
+        Booking lastBooking = Booking.builder()
+                .id(2L)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+        ItemSummary summary = ItemSummary.empty(itemId);
+        summary.setBookings(new NearestBooking(itemId, lastBooking.getId(), booker.getId(), lastBooking.getStart(), false),
+                new NearestBooking(itemId, booking.getId(), booker.getId(), booking.getStart(), true));
+        when(itemSnapshotLoader.load(itemId))
+                .thenReturn(ItemMapper.toItemSnapshot(item, List.of(comment), summary));
 
         ItemDtoResponse actualItem = itemService.getItemById(itemId, userId);
 
         assertNotNull(actualItem);
         assertThat(actualItem.getId(), equalTo(item.getId()));
-        verify(itemRepository).findById(anyLong());
-        verify(bookingRepository).findByItemAndStatus(any(), any(), any());
-        verify(commentRepository).findByItem(any(Item.class));
-        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository);
+        assertThat(actualItem.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(actualItem.getNextBooking().getId(), equalTo(booking.getId()));
+        assertThat(actualItem.getComments().size(), equalTo(1));
+        verify(itemSnapshotLoader).load(itemId);
+        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository, itemSnapshotLoader);
     }
 
     @Test
-    void getItemById_whenItemIsFoundAndUserIsNotOwner_thenItemIsReturned() {
+    void getItemById_whenItemIsFoundAndUserIsNotOwner_thenItemWithoutBookingsIsReturned() {
         Long itemId = item.getId();
         Long userId = booker.getId();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.findByItemAndStatus(any(), any(), any())).thenReturn(List.of(booking));
-        when(commentRepository.findByItem(any(Item.class))).thenReturn(List.of(comment));
+        ItemSummary summary = ItemSummary.empty(itemId);
+        summary.setBookings(null, new NearestBooking(itemId, booking.getId(), booker.getId(), booking.getStart(), true));
+        when(itemSnapshotLoader.load(itemId))
+                .thenReturn(ItemMapper.toItemSnapshot(item, List.of(comment), summary));
 
         ItemDtoResponse actualItem = itemService.getItemById(itemId, userId);
 
         assertNotNull(actualItem);
         assertThat(actualItem.getId(), equalTo(item.getId()));
-        verify(itemRepository).findById(anyLong());
-        verify(bookingRepository).findByItemAndStatus(any(), any(), any());
-        verify(commentRepository).findByItem(any(Item.class));
-        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository);
+        assertThat(actualItem.getNextBooking(), nullValue());
+        assertThat(actualItem.getLastBooking(), nullValue());
+        assertThat(actualItem.getComments().size(), equalTo(1));
+        verify(itemSnapshotLoader).load(itemId);
+        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository, itemSnapshotLoader);
     }
 
     @Test
-    void getItemById_whenItemIsNotFound_thenItemIsReturned() {
+    void getItemById_whenItemIsNotFound_thenEntityNotFoundExceptionThrown() {
         Long itemId = item.getId();
         Long userId = owner.getId();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemSnapshotLoader.load(itemId)).thenThrow(new EntityNotFoundException("Вещь с id 1 не найдена"));
 
         assertThrows(EntityNotFoundException.class, () -> itemService.getItemById(itemId, userId));
-        verify(itemRepository).findById(anyLong());
         verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository);
     }
 
     @Test
     void createItem_whenUserIsFoundAndRequestIdNotNull_thenItemCreatedAndReturned() {
         Long userId = owner.getId();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(owner);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
         when(itemRepository.save(ItemMapper.toItem(itemDtoRequest, owner, request))).thenReturn(item);
 
@@ -235,16 +291,19 @@ class ItemServiceImplTest {
 
         assertNotNull(actualItem);
         assertThat(actualItem.getId(), equalTo(item.getId()));
-        verify(userRepository).findById(anyLong());
+        verify(userRepository).getReferenceById(anyLong());
         verify(requestRepository).findById(anyLong());
         verify(itemRepository).save(ItemMapper.toItem(itemDtoRequest, owner, request));
+        verify(itemSearchEngine).index(item);
+        verify(itemSummaryProjection).itemCreated(item);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(item.getId(), request.getId()));
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
     @Test
     void createItem_whenUserIsFoundAndRequestIdNull_thenItemCreatedAndReturned() {
         Long userId = owner.getId();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(owner);
         itemDtoRequest.setRequestId(null);
         item.setRequest(null);
         when(itemRepository.save(ItemMapper.toItem(itemDtoRequest, owner, request))).thenReturn(item);
@@ -253,29 +312,30 @@ class ItemServiceImplTest {
 
         assertNotNull(actualItem);
         assertThat(actualItem.getId(), equalTo(item.getId()));
-        verify(userRepository).findById(anyLong());
+        verify(userRepository).getReferenceById(anyLong());
         verify(itemRepository).save(ItemMapper.toItem(itemDtoRequest, owner, request));
+        verify(itemSummaryProjection).itemCreated(item);
         verifyNoMoreInteractions(userRepository, itemRepository);
     }
 
     @Test
     void createItem_whenUserNotFound_thenEntityNotFoundExceptionThrown() {
         Long userId = owner.getId();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(anyLong());
 
         assertThrows(EntityNotFoundException.class, () -> itemService.createItem(itemDtoRequest, userId));
-        verify(userRepository).findById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
     void createItem_whenUserIsFoundButRequestIsNotFound_thenEntityNotFoundExceptionThrown() {
         Long userId = owner.getId();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(owner);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> itemService.createItem(itemDtoRequest, userId));
-        verify(userRepository).findById(anyLong());
+        verify(userRepository).getReferenceById(anyLong());
         verify(requestRepository).findById(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository);
     }
@@ -284,8 +344,8 @@ class ItemServiceImplTest {
     void updateItem_WhenUserIsFoundAndItemIsFound_thenUpdateItemWithItemDtoNonNullFields() {
         Long itemId = item.getId();
         Long userId = owner.getId();
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
         when(commentRepository.findByItem(any(Item.class))).thenReturn(List.of(comment));
 
@@ -304,10 +364,9 @@ class ItemServiceImplTest {
     void updateItem_whenItemNotFound_thenEntityNotFoundExceptionThrown() {
         Long itemId = 1000000L;
         Long userId = owner.getId();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemIdRegistry.contains(anyLong())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.updateItem(itemDtoRequest, itemId, userId));
-        verify(itemRepository).findById(anyLong());
         verifyNoMoreInteractions(itemRepository);
     }
 
@@ -315,12 +374,13 @@ class ItemServiceImplTest {
     void updateItem_whenUserNotFound_thenEntityNotFoundExceptionThrown() {
         Long itemId = item.getId();
         Long userId = 1000000L;
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.existsById(userId)).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(userId);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.updateItem(itemDtoRequest, itemId, userId));
         verify(itemRepository).findById(anyLong());
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(itemRepository, userRepository);
     }
 
@@ -328,12 +388,12 @@ class ItemServiceImplTest {
     void updateItem_whenUserIsNotOwner_thenEntityNotFoundExceptionThrown() {
         Long itemId = item.getId();
         Long userId = booker.getId();
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.existsById(userId)).thenReturn(true);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.updateItem(itemDtoRequest, itemId, userId));
         verify(itemRepository).findById(anyLong());
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(itemRepository, userRepository);
     }
 
@@ -342,8 +402,8 @@ class ItemServiceImplTest {
         Long itemId = item.getId();
         Long userId = owner.getId();
         itemDtoRequest.setName(null);
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
         when(commentRepository.findByItem(any(Item.class))).thenReturn(List.of(comment));
 
@@ -363,8 +423,8 @@ class ItemServiceImplTest {
         Long itemId = item.getId();
         Long userId = owner.getId();
         itemDtoRequest.setDescription(null);
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.existsById(userId)).thenReturn(true);
         when(itemRepository.save(any(Item.class))).thenReturn(item);
         when(commentRepository.findByItem(any(Item.class))).thenReturn(List.of(comment));
 
@@ -383,18 +443,21 @@ class ItemServiceImplTest {
     void deleteItem_whenItemIsFound_thenItemIsDeleted() {
         Long itemId = item.getId();
         Long userId = owner.getId();
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         itemService.deleteItem(itemId, userId);
 
         verify(itemRepository, times(1)).deleteById(itemId);
+        verify(itemSearchEngine).remove(itemId);
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(itemId, request.getId()));
     }
 
     @Test
     void deleteItem_whenItemNotFound_thenEntityNotFoundExceptionThrown() {
         Long itemId = 1000000L;
         Long userId = owner.getId();
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemIdRegistry.contains(anyLong())).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.deleteItem(itemId, userId));
         verifyNoMoreInteractions(itemRepository);
@@ -404,6 +467,7 @@ class ItemServiceImplTest {
     void deleteItem_whenUserIsNotOwner_thenEntityNotFoundExceptionThrown() {
         Long itemId = item.getId();
         Long userId = booker.getId();
+        when(itemIdRegistry.contains(anyLong())).thenReturn(true);
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         assertThrows(EntityNotFoundException.class, () -> itemService.deleteItem(itemId, userId));
@@ -415,22 +479,36 @@ class ItemServiceImplTest {
         String text = "text";
         Integer from = 0;
         Integer size = 10;
-        when(itemRepository.findByNameOrDescriptionContainingIgnoreCase(any(String.class), any(Pageable.class)))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findByItemInAndStatus(anyList(), any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(List.of(booking));
-        when(commentRepository.findByItemIn(anyList(), any(Sort.class)))
-                .thenReturn(List.of(comment));
+        when(itemSearchEngine.search(any(String.class), any(Pageable.class))).thenReturn(List.of(itemView));
+        ItemSummary summary = ItemSummary.empty(item.getId());
+        summary.setCommentCount(1);
+        when(itemSummaryProjection.findByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(commentRepository.findViewsByItemIdIn(anyList(), any(Sort.class)))
+                .thenReturn(List.of(commentView));
 
         List<ItemDtoResponse> actualItems = itemService.search(text, from, size);
 
         assertNotNull(actualItems);
         assertThat(actualItems.size(), equalTo(1));
         assertThat(actualItems.get(0).getId(), equalTo(item.getId()));
-        verify(itemRepository).findByNameOrDescriptionContainingIgnoreCase(any(String.class), any(Pageable.class));
-        verify(bookingRepository).findByItemInAndStatus(anyList(), any(BookingStatus.class), any(Sort.class));
-        verify(commentRepository).findByItemIn(anyList(), any(Sort.class));
-        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository);
+        verify(itemSearchEngine).search(any(String.class), any(Pageable.class));
+        verify(itemSummaryProjection).findByItemIds(anyList(), any(LocalDateTime.class));
+        verify(commentRepository).findViewsByItemIdIn(anyList(), any(Sort.class));
+        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository, itemSearchEngine);
+    }
+
+    @Test
+    void search_whenFoundItemsHaveNoComments_thenCommentsAreNotQueried() {
+        when(itemSearchEngine.search(any(String.class), any(Pageable.class))).thenReturn(List.of(itemView));
+        when(itemSummaryProjection.findByItemIds(anyList(), any(LocalDateTime.class)))
+                .thenReturn(Map.of(item.getId(), ItemSummary.empty(item.getId())));
+
+        List<ItemDtoResponse> actualItems = itemService.search("text", 0, 10);
+
+        assertThat(actualItems.size(), equalTo(1));
+        assertThat(actualItems.get(0).getComments().size(), equalTo(0));
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
@@ -443,7 +521,7 @@ class ItemServiceImplTest {
 
         assertNotNull(actualItems);
         assertThat(actualItems.size(), equalTo(0));
-        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository);
+        verifyNoMoreInteractions(itemRepository, bookingRepository, commentRepository, itemSearchEngine);
     }
 
     @Test
@@ -451,18 +529,21 @@ class ItemServiceImplTest {
         Long itemId = item.getId();
         Long userId = booker.getId();
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemIdRegistry.contains(itemId)).thenReturn(true);
+        when(itemRepository.getReferenceById(itemId)).thenReturn(item);
         when(bookingRepository.countByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(1L);
-        when(commentRepository.save(CommentMapper.toComment(commentDtoRequest, item, booker))).thenReturn(comment);
+        when(commentRepository.save(CommentMapper.toComment(commentDtoRequest, item, booker, LocalDateTime.now()))).thenReturn(comment);
 
         CommentDtoResponse actualComment = itemService.createComment(commentDtoRequest, itemId, userId);
 
         assertNotNull(actualComment);
         assertThat(actualComment.getId(), equalTo(comment.getId()));
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(itemId);
+        verify(itemRepository).getReferenceById(itemId);
         verify(bookingRepository).countByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class));
-        verify(commentRepository).save(CommentMapper.toComment(commentDtoRequest, item, booker));
+        verify(commentRepository).save(CommentMapper.toComment(commentDtoRequest, item, booker, LocalDateTime.now()));
+        verify(itemSummaryProjection).commentAdded(item);
+        verify(eventPublisher).publishEvent(new CommentCreatedEvent(comment.getId(), itemId));
         verifyNoMoreInteractions(userRepository, itemRepository, bookingRepository, commentRepository);
 
         verify(commentRepository).save(commentArgumentCaptor.capture());
@@ -475,12 +556,13 @@ class ItemServiceImplTest {
         Long itemId = item.getId();
         Long userId = owner.getId();
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemIdRegistry.contains(itemId)).thenReturn(true);
+        when(itemRepository.getReferenceById(itemId)).thenReturn(item);
         when(bookingRepository.countByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(0L);
 
         assertThrows(UnavailableItemException.class, () -> itemService.createComment(commentDtoRequest, itemId, userId));
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(itemId);
+        verify(itemRepository).getReferenceById(itemId);
         verify(bookingRepository).countByItemIdAndBookerIdAndEndBefore(anyLong(), anyLong(), any(LocalDateTime.class));
         verifyNoMoreInteractions(userRepository, itemRepository, bookingRepository, commentRepository);
     }
@@ -501,11 +583,10 @@ class ItemServiceImplTest {
         Long itemId = item.getId();
         Long userId = owner.getId();
         when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemIdRegistry.contains(itemId)).thenReturn(false);
 
         assertThrows(EntityNotFoundException.class, () -> itemService.createComment(commentDtoRequest, itemId, userId));
         verify(userRepository).findById(userId);
-        verify(itemRepository).findById(itemId);
         verifyNoMoreInteractions(userRepository, itemRepository, bookingRepository, commentRepository);
     }
 }
\ No newline at end of file
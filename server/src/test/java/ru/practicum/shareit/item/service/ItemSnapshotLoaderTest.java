@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.NearestBooking;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.comment.Comment;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+import ru.practicum.shareit.item.ItemIdRegistry;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.user.User;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSnapshotLoaderTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ItemIdRegistry itemIdRegistry;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemSummaryProjection itemSummaryProjection;
+    @Spy
+    private RequestClock requestClock = new RequestClock(Clock.systemDefaultZone());
+    @InjectMocks
+    private ItemSnapshotLoader itemSnapshotLoader;
+
+    @Test
+    void load_whenItemFound_thenSnapshotWithCommentsAndSummaryBookingsReturned() {
+        User owner = User.builder().id(1L).name("owner").email("owner@gmail.com").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@gmail.com").build();
+        Item item = new Item(1L, "name", "description", true, owner);
+        Comment comment = new Comment(1L, "text", item, booker, LocalDateTime.now());
+        ItemSummary summary = ItemSummary.empty(item.getId());
+        summary.setBookings(
+                new NearestBooking(item.getId(), 1L, booker.getId(), LocalDateTime.now().minusDays(1), false),
+                new NearestBooking(item.getId(), 2L, booker.getId(), LocalDateTime.now().plusDays(1), true));
+        summary.setCommentCount(1);
+        when(itemIdRegistry.contains(1L)).thenReturn(true);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemSummaryProjection.findByItemIds(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, summary));
+        when(commentRepository.findByItem(item)).thenReturn(List.of(comment));
+
+        ItemSnapshot snapshot = itemSnapshotLoader.load(1L);
+
+        assertThat(snapshot.getOwnerId(), equalTo(owner.getId()));
+        assertThat(snapshot.getRequestId(), nullValue());
+        assertThat(snapshot.getComments().get(0).getAuthorName(), equalTo(booker.getName()));
+        assertThat(snapshot.getApprovedBookings().size(), equalTo(2));
+        assertThat(snapshot.getApprovedBookings().get(0).getId(), equalTo(1L));
+        assertThat(snapshot.getApprovedBookings().get(1).getId(), equalTo(2L));
+    }
+
+    @Test
+    void load_whenSummaryHasNoComments_thenCommentsAreNotQueried() {
+        User owner = User.builder().id(1L).name("owner").email("owner@gmail.com").build();
+        Item item = new Item(1L, "name", "description", true, owner);
+        when(itemIdRegistry.contains(1L)).thenReturn(true);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemSummaryProjection.findByItemIds(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(Map.of(1L, ItemSummary.empty(1L)));
+
+        ItemSnapshot snapshot = itemSnapshotLoader.load(1L);
+
+        assertThat(snapshot.getComments().size(), equalTo(0));
+        assertThat(snapshot.getApprovedBookings().size(), equalTo(0));
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void load_whenItemNotFound_thenEntityNotFoundExceptionThrown() {
+        when(itemIdRegistry.contains(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> itemSnapshotLoader.load(1L));
+        verifyNoInteractions(commentRepository, itemSummaryProjection);
+    }
+}
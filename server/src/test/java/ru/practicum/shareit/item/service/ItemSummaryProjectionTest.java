@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.availability.ItemLockManager;
+import ru.practicum.shareit.booking.dto.NearestBooking;
+import ru.practicum.shareit.clock.RequestClock;
+import ru.practicum.shareit.comment.CommentRepository;
+import ru.practicum.shareit.event.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSummaryRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSummaryProjectionTest {
+    @Mock
+    private ItemSummaryRepository itemSummaryRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private ItemLockManager itemLockManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private RequestClock requestClock = new RequestClock(Clock.systemDefaultZone());
+    @InjectMocks
+    private ItemSummaryProjection itemSummaryProjection;
+    @Captor
+    private ArgumentCaptor<Iterable<ItemSummary>> summariesCaptor;
+
+    @Test
+    void findByItemIds_whenSummariesUpToDate_thenBookingsAreNotQueried() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemSummary summary = ItemSummary.empty(1L);
+        summary.setBookings(null, new NearestBooking(1L, 10L, 2L, now.plusDays(1), true));
+        when(itemSummaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+
+        Map<Long, ItemSummary> summaries = itemSummaryProjection.findByItemIds(List.of(1L), now);
+
+        assertThat(summaries.get(1L), sameInstance(summary));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void findByItemIds_whenNextBookingStarted_thenBookingsRecalculatedAndCommentCountKept() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemSummary summary = ItemSummary.empty(1L);
+        summary.setBookings(null, new NearestBooking(1L, 10L, 2L, now.minusMinutes(1), true));
+        summary.setCommentCount(3);
+        when(itemSummaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+        when(bookingRepository.findLastAndNextApproved(Set.of(1L), now))
+                .thenReturn(List.of(new NearestBooking(1L, 10L, 2L, now.minusMinutes(1), false)));
+
+        ItemSummary actual = itemSummaryProjection.findByItemIds(List.of(1L), now).get(1L);
+
+        assertThat(actual.getLastBookingId(), equalTo(10L));
+        assertThat(actual.getNextBookingId(), nullValue());
+        assertThat(actual.getCommentCount(), equalTo(3));
+        assertThat(summary.getNextBookingId(), equalTo(10L));
+    }
+
+    @Test
+    void refreshBookings_whenSummaryMissing_thenCreatedWithBookingsAndCommentCount() {
+        Item item = Item.builder().id(1L).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        when(itemSummaryRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        when(itemRepository.getReferenceById(1L)).thenReturn(item);
+        when(commentRepository.countByItem(item)).thenReturn(2L);
+        when(bookingRepository.findLastAndNextApproved(eq(Set.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(new NearestBooking(1L, 10L, 2L, start, true)));
+
+        itemSummaryProjection.refreshBookings(List.of(1L));
+
+        verify(itemSummaryRepository).saveAll(summariesCaptor.capture());
+        ItemSummary created = summariesCaptor.getValue().iterator().next();
+        assertThat(created.getItem(), sameInstance(item));
+        assertThat(created.getNextBookingId(), equalTo(10L));
+        assertThat(created.getNextStart(), equalTo(start));
+        assertThat(created.getCommentCount(), equalTo(2));
+    }
+
+    @Test
+    void commentAdded_whenSummaryExists_thenCountIncrementedByQuery() {
+        Item item = Item.builder().id(1L).build();
+        when(itemSummaryRepository.incrementCommentCount(1L)).thenReturn(1);
+
+        itemSummaryProjection.commentAdded(item);
+
+        verify(itemSummaryRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void rollStartedBookings_whenNextBookingsStarted_thenItemsLockedRefreshedAndEvicted() {
+        ItemSummary summary = ItemSummary.empty(1L);
+        summary.setBookings(null, new NearestBooking(1L, 10L, 2L, LocalDateTime.now().minusMinutes(1), true));
+        when(itemSummaryRepository.findItemIdsByNextStartNotAfter(any(LocalDateTime.class))).thenReturn(List.of(1L));
+        when(itemSummaryRepository.findAllById(List.of(1L))).thenReturn(List.of(summary));
+        when(bookingRepository.findLastAndNextApproved(eq(Set.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(new NearestBooking(1L, 10L, 2L, summary.getNextStart(), false)));
+
+        itemSummaryProjection.rollStartedBookings();
+
+        verify(itemLockManager).lockAllForTransaction(List.of(1L));
+        verify(eventPublisher).publishEvent(new ItemChangedEvent(1L, null));
+        assertThat(summary.getLastBookingId(), equalTo(10L));
+        assertThat(summary.getNextBookingId(), nullValue());
+    }
+
+    @Test
+    void rollStartedBookings_whenNoStartedBookings_thenNothingLocked() {
+        when(itemSummaryRepository.findItemIdsByNextStartNotAfter(any(LocalDateTime.class))).thenReturn(List.of());
+
+        itemSummaryProjection.rollStartedBookings();
+
+        verifyNoInteractions(itemLockManager, bookingRepository, eventPublisher);
+        verify(itemSummaryRepository, never()).findAllById(anyList());
+    }
+}
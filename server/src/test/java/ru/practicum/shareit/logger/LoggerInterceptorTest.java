@@ -0,0 +1,109 @@
+package ru.practicum.shareit.logger;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+class LoggerInterceptorTest {
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggerInterceptor.class);
+    private final ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/search");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        listAppender.start();
+        logger.addAppender(listAppender);
+        request.setQueryString("text=drill&from=0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(listAppender);
+    }
+
+    @Test
+    void afterCompletion_whenSampled_thenSingleLineWithStatusAndDuration() {
+        LoggerInterceptor interceptor = interceptor(1.0, Duration.ofSeconds(1));
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(listAppender.list.size(), equalTo(1));
+        ILoggingEvent event = listAppender.list.get(0);
+        assertThat(event.getLevel(), equalTo(Level.INFO));
+        assertThat(event.getFormattedMessage(), startsWith("method=GET uri=/items/search?text=drill&from=0 status=200 "
+                + "durationMs="));
+        assertThat(meterRegistry.get("shareit.access-log.requests").tag("result", "logged").functionCounter().count(),
+                equalTo(1.0));
+    }
+
+    @Test
+    void afterCompletion_whenNotSampled_thenSkippedAndCounted() {
+        LoggerInterceptor interceptor = interceptor(0.0, Duration.ofSeconds(1));
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(listAppender.list, empty());
+        assertThat(interceptor.getSkippedCount(), equalTo(1L));
+    }
+
+    @Test
+    void afterCompletion_whenSlowRequest_thenLoggedDespiteSampling() {
+        LoggerInterceptor interceptor = interceptor(0.0, Duration.ZERO);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertThat(interceptor.getLoggedCount(), equalTo(1L));
+    }
+
+    @Test
+    void afterCompletion_whenException_thenWarnWithThrowableDespiteSampling() {
+        LoggerInterceptor interceptor = interceptor(0.0, Duration.ofSeconds(1));
+        response.setStatus(500);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, new IllegalStateException("boom"));
+
+        assertThat(listAppender.list.size(), equalTo(1));
+        assertThat(listAppender.list.get(0).getLevel(), equalTo(Level.WARN));
+        assertThat(listAppender.list.get(0).getThrowableProxy().getMessage(), equalTo("boom"));
+    }
+
+    @Test
+    void preHandle_whenAsyncDispatch_thenStartTimeKept() {
+        LoggerInterceptor interceptor = interceptor(1.0, Duration.ofSeconds(1));
+        interceptor.preHandle(request, response, null);
+        Object startedAt = request.getAttribute(LoggerInterceptor.class.getName() + ".startedAt");
+
+        interceptor.preHandle(request, response, null);
+
+        assertThat(request.getAttribute(LoggerInterceptor.class.getName() + ".startedAt"), equalTo(startedAt));
+    }
+
+    private LoggerInterceptor interceptor(double sampleRate, Duration slowThreshold) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        return new LoggerInterceptor(sampleRate, slowThreshold, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.registry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdBitmapTest {
+    private final IdBitmap bitmap = new IdBitmap();
+
+    @Test
+    void add_whenIdsInDifferentChunks_thenOnlyAddedIdsContained() {
+        assertThat(bitmap.add(1L), equalTo(true));
+        bitmap.add(63L);
+        bitmap.add(65536L);
+        bitmap.add(5_000_000_000L);
+
+        assertThat(bitmap.add(1L), equalTo(false));
+        assertThat(bitmap.contains(1L), equalTo(true));
+        assertThat(bitmap.contains(63L), equalTo(true));
+        assertThat(bitmap.contains(65536L), equalTo(true));
+        assertThat(bitmap.contains(5_000_000_000L), equalTo(true));
+        assertThat(bitmap.contains(0L), equalTo(false));
+        assertThat(bitmap.contains(64L), equalTo(false));
+        assertThat(bitmap.contains(65537L), equalTo(false));
+        assertThat(bitmap.cardinality(), equalTo(4L));
+    }
+
+    @Test
+    void remove_whenIdRemoved_thenNeighboursKept() {
+        bitmap.add(10L);
+        bitmap.add(11L);
+
+        bitmap.remove(10L);
+        bitmap.remove(100_000L);
+
+        assertThat(bitmap.contains(10L), equalTo(false));
+        assertThat(bitmap.contains(11L), equalTo(true));
+    }
+
+    @Test
+    void add_whenChunkBecomesDense_thenConvertedToBitmapAndBackOnRemoval() {
+        for (long id = 0; id <= 4096; id++) {
+            bitmap.add(id * 2);
+        }
+        assertThat(bitmap.sizeInBytes(), equalTo(8192L));
+
+        bitmap.remove(0L);
+
+        assertThat(bitmap.sizeInBytes(), equalTo(4096L * 2));
+        assertThat(bitmap.contains(0L), equalTo(false));
+        assertThat(bitmap.contains(2L), equalTo(true));
+        assertThat(bitmap.contains(8192L), equalTo(true));
+        assertThat(bitmap.contains(3L), equalTo(false));
+        assertThat(bitmap.cardinality(), equalTo(4096L));
+    }
+
+    @Test
+    void builder_whenMillionSequentialIds_thenAboutOneBitPerId() {
+        IdBitmap.Builder builder = IdBitmap.builder();
+        for (long id = 1; id <= 1_000_000; id++) {
+            builder.add(id);
+        }
+
+        IdBitmap built = builder.build();
+
+        assertThat(built.cardinality(), equalTo(1_000_000L));
+        assertThat(built.contains(1L), equalTo(true));
+        assertThat(built.contains(1_000_000L), equalTo(true));
+        assertThat(built.contains(1_000_001L), equalTo(false));
+        assertThat(built.sizeInBytes(), lessThan(200_000L));
+    }
+
+    @Test
+    void builder_whenIdsNotAscending_thenIllegalArgumentExceptionThrown() {
+        IdBitmap.Builder builder = IdBitmap.builder().add(10L).add(10L);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(9L));
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.registry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class TransactionalIdSetTest {
+    private final TransactionalIdSet ids = new TransactionalIdSet();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void add_whenTransactionRolledBack_thenIdRemoved() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        ids.add(1L);
+        assertThat(ids.contains(1L), equalTo(true));
+        completeTransaction(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(ids.contains(1L), equalTo(false));
+    }
+
+    @Test
+    void add_whenIdAlreadyPresentAndTransactionRolledBack_thenIdKept() {
+        ids.add(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ids.add(1L);
+        completeTransaction(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(ids.contains(1L), equalTo(true));
+    }
+
+    @Test
+    void remove_whenTransactionCommitted_thenIdRemovedOnlyAfterCommit() {
+        ids.add(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ids.remove(1L);
+        assertThat(ids.contains(1L), equalTo(true));
+        completeTransaction(TransactionSynchronization::afterCommit);
+
+        assertThat(ids.contains(1L), equalTo(false));
+    }
+
+    @Test
+    void reset_whenLoaded_thenContentReplaced() {
+        ids.add(5L);
+
+        ids.reset(IdBitmap.builder().add(1L).add(2L).build());
+
+        assertThat(ids.contains(1L), equalTo(true));
+        assertThat(ids.contains(5L), equalTo(false));
+        assertThat(ids.size(), equalTo(2L));
+    }
+
+    private void completeTransaction(Consumer<TransactionSynchronization> completion) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(completion);
+    }
+}
@@ -7,10 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 import ru.practicum.shareit.request.dto.RequestDtoResponse;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +24,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.constant.ConstantKeeper.USER_REQUEST_HEADER;
 
@@ -32,6 +36,9 @@ class RequestControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private RequestService requestService;
+    @MockBean
+    private ResourceVersions resourceVersions;
+    private final ResourceVersion version = new ResourceVersion("v1", Instant.parse("2024-01-01T10:00:00Z"));
     private final RequestDtoPost requestDtoPost = RequestDtoPost.builder()
             .description("description")
             .build();
@@ -80,11 +87,13 @@ class RequestControllerTest {
         Long requestId = 1L;
         Long userId = 1L;
         RequestDtoResponse expectedDtoResponse = new RequestDtoResponse();
+        when(resourceVersions.current(ResourceVersions.REQUESTS, requestId)).thenReturn(version);
         when(requestService.getRequestById(anyLong(), anyLong())).thenReturn(expectedDtoResponse);
 
         String response = mockMvc.perform(get("/requests/{requestId}", requestId)
                         .header(USER_REQUEST_HEADER, userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -6,17 +6,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.request.dto.RequestDtoPost;
 import ru.practicum.shareit.request.dto.RequestDtoResponse;
+import ru.practicum.shareit.request.dto.RequestView;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
@@ -28,8 +27,8 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -42,13 +41,16 @@ class RequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceVerifier userExistenceVerifier;
+    @Mock
     private RequestRepository requestRepository;
     @InjectMocks
     private RequestServiceImpl requestService;
-    private Item item;
+    private ItemView itemView;
     private User owner;
     private User requestor;
     private Request request;
+    private RequestView requestView;
     private RequestDtoPost requestDtoPost;
 
     @BeforeEach
@@ -72,14 +74,9 @@ class RequestServiceImplTest {
                 .created(LocalDateTime.now().plusDays(2))
                 .build();
 
-        item = Item.builder()
-                .id(1L)
-                .name("itemName")
-                .description("itemDescription")
-                .available(true)
-                .owner(owner)
-                .request(request)
-                .build();
+        requestView = new RequestView(request.getId(), request.getDescription(), request.getCreated());
+
+        itemView = new ItemView(1L, "itemName", "itemDescription", true, request.getId());
 
         requestDtoPost = RequestDtoPost.builder()
                 .description("requestDtoPost_description")
@@ -89,7 +86,7 @@ class RequestServiceImplTest {
     @Test
     void createRequest_whenUserIsFound_thenRequestIsCreatedAndReturned() {
         Long userId = requestor.getId();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
+        when(userRepository.getReferenceById(anyLong())).thenReturn(owner);
         when(requestRepository.save(RequestMapper.toRequest(requestDtoPost, owner, LocalDateTime.now())))
                 .thenReturn(request);
 
@@ -97,7 +94,7 @@ class RequestServiceImplTest {
 
         assertNotNull(actualRequest);
         assertThat(actualRequest.getId(), equalTo(request.getId()));
-        verify(userRepository).findById(anyLong());
+        verify(userRepository).getReferenceById(anyLong());
         verify(requestRepository).save(RequestMapper.toRequest(requestDtoPost, owner, LocalDateTime.now()));
         verifyNoMoreInteractions(userRepository, requestRepository);
     }
@@ -105,39 +102,38 @@ class RequestServiceImplTest {
     @Test
     void createRequest_whenUserNotFound_thenEntityNotFoundExceptionThrown() {
         Long userId = requestor.getId();
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(anyLong());
 
         assertThrows(EntityNotFoundException.class, () -> requestService.createRequest(requestDtoPost, userId));
-        verify(userRepository).findById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository);
     }
 
     @Test
     void getAllRequests_whenUserFound_thenListOfRequestDtoReturned() {
         Long userId = requestor.getId();
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(requestRepository.findByRequestorId(anyLong(), any(Sort.class))).thenReturn(List.of(request));
-        when(itemRepository.findByRequestIn(anyList(), any(Sort.class))).thenReturn(List.of(item));
+        when(requestRepository.findViewsByRequestorId(anyLong())).thenReturn(List.of(requestView));
+        when(itemRepository.findViewsByRequestIdIn(List.of(request.getId()))).thenReturn(List.of(itemView));
 
         List<RequestDtoResponse> actualRequests = requestService.getAllRequests(userId);
 
         assertNotNull(actualRequests);
         assertThat(actualRequests.size(), equalTo(1));
         assertThat(actualRequests.get(0).getId(), equalTo(request.getId()));
-        verify(userRepository).existsById(anyLong());
-        verify(requestRepository).findByRequestorId(anyLong(), any(Sort.class));
-        verify(itemRepository).findByRequestIn(anyList(), any(Sort.class));
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(requestRepository).findViewsByRequestorId(anyLong());
+        verify(itemRepository).findViewsByRequestIdIn(List.of(request.getId()));
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
     @Test
     void getAllRequests_whenUserIsNotFound_thenEntityNotFoundExceptionIsThrown() {
         Long userId = requestor.getId();
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(anyLong());
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getAllRequests(userId));
 
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
@@ -145,17 +141,16 @@ class RequestServiceImplTest {
     void getRequestById_whenUserFoundAndRequestFound_thenRequestDtoIsReturned() {
         Long userId = requestor.getId();
         Long requestId = request.getId();
-        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
-        when(itemRepository.findByRequest(any(Request.class), any(Sort.class))).thenReturn(List.of(item));
+        when(itemRepository.findViewsByRequestIdIn(List.of(requestId))).thenReturn(List.of(itemView));
 
         RequestDtoResponse actualRequest = requestService.getRequestById(requestId, userId);
 
         assertNotNull(actualRequest);
         assertThat(actualRequest.getId(), equalTo(request.getId()));
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verify(requestRepository).findById(anyLong());
-        verify(itemRepository).findByRequest(any(Request.class), any(Sort.class));
+        verify(itemRepository).findViewsByRequestIdIn(List.of(requestId));
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
@@ -163,12 +158,11 @@ class RequestServiceImplTest {
     void getRequestById_whenUserIsNotFound_thenEntityNotFoundExceptionIsThrown() {
         Long userId = requestor.getId();
         Long requestId = request.getId();
-        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getRequestById(requestId, userId));
 
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verify(requestRepository).findById(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
@@ -177,11 +171,11 @@ class RequestServiceImplTest {
     void getRequestById_whenUserIsFoundButRequestIsNotFound_thenEntityNotFoundExceptionIsThrown() {
         Long userId = requestor.getId();
         Long requestId = request.getId();
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(anyLong());
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getRequestById(requestId, userId));
 
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
@@ -190,38 +184,34 @@ class RequestServiceImplTest {
         Long userId = requestor.getId();
         Integer from = 0;
         Integer size = 10;
-        Page<Request> pagedRequests = new PageImpl<>(List.of(request));
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(requestRepository.findAllByRequestorIdNot(anyLong(), any(Pageable.class))).thenReturn(pagedRequests);
-        when(itemRepository.findByRequestIn(anyList(), any(Sort.class))).thenReturn(List.of(item));
+        when(requestRepository.findViewsByRequestorIdNot(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(requestView));
+        when(itemRepository.findViewsByRequestIdIn(List.of(request.getId()))).thenReturn(List.of(itemView));
 
         List<RequestDtoResponse> actualRequests = requestService.getAllByPages(from, size, userId);
 
         assertNotNull(actualRequests);
         assertThat(actualRequests.size(), equalTo(1));
         assertThat(actualRequests.get(0).getId(), equalTo(request.getId()));
-        verify(userRepository).existsById(anyLong());
-        verify(requestRepository).findAllByRequestorIdNot(anyLong(), any(Pageable.class));
-        verify(itemRepository).findByRequestIn(anyList(), any(Sort.class));
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(requestRepository).findViewsByRequestorIdNot(anyLong(), any(Pageable.class));
+        verify(itemRepository).findViewsByRequestIdIn(List.of(request.getId()));
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
     @Test
-    void getAllByPages_whenUserFoundAndListOfRequestsIsNull_thenEmptyListOfRequestDtoResponseIsReturned() {
+    void getAllByPages_whenUserFoundAndListOfRequestsIsEmpty_thenItemsAreNotQueried() {
         Long userId = requestor.getId();
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(requestRepository.findAllByRequestorIdNot(anyLong(), any(Pageable.class))).thenReturn(null);
-        when(itemRepository.findByRequestIn(anyList(), any(Sort.class))).thenReturn(List.of());
+        when(requestRepository.findViewsByRequestorIdNot(anyLong(), any(Pageable.class))).thenReturn(List.of());
 
         List<RequestDtoResponse> actualRequests = requestService.getAllByPages(from, size, userId);
 
         assertNotNull(actualRequests);
         assertThat(actualRequests.size(), equalTo(0));
-        verify(userRepository).existsById(anyLong());
-        verify(requestRepository).findAllByRequestorIdNot(anyLong(), any(Pageable.class));
-        verify(itemRepository).findByRequestIn(anyList(), any(Sort.class));
+        verify(userExistenceVerifier).verify(anyLong());
+        verify(requestRepository).findViewsByRequestorIdNot(anyLong(), any(Pageable.class));
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 
@@ -230,11 +220,11 @@ class RequestServiceImplTest {
         Long userId = requestor.getId();
         Integer from = 0;
         Integer size = 10;
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(anyLong());
 
         assertThrows(EntityNotFoundException.class, () -> requestService.getAllByPages(from, size, userId));
 
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(anyLong());
         verifyNoMoreInteractions(userRepository, requestRepository, itemRepository);
     }
 }
\ No newline at end of file
@@ -8,21 +8,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.etag.ResourceVersion;
+import ru.practicum.shareit.etag.ResourceVersions;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -33,6 +39,9 @@ class UserControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private UserService userService;
+    @MockBean
+    private ResourceVersions resourceVersions;
+    private final ResourceVersion version = new ResourceVersion("v1", Instant.parse("2024-01-01T10:00:00Z"));
 
     private final UserDto userDto = UserDto.builder()
             .id(1L)
@@ -44,7 +53,7 @@ class UserControllerTest {
     @SneakyThrows
     void getUsers_whenInvoked_thenResponseStatusOkWithListOfUserDtoInBody() {
         List<UserDto> expectedUsers = List.of(new UserDto());
-        when(userService.getUsers()).thenReturn(expectedUsers);
+        when(userService.getUsers(0, 10)).thenReturn(expectedUsers);
 
         String response = mockMvc.perform(get("/users"))
                 .andExpect(status().isOk())
@@ -52,7 +61,7 @@ class UserControllerTest {
                 .getResponse()
                 .getContentAsString();
 
-        verify(userService).getUsers();
+        verify(userService).getUsers(0, 10);
         assertEquals(objectMapper.writeValueAsString(expectedUsers), response);
     }
 
@@ -61,10 +70,12 @@ class UserControllerTest {
     void getUserById_whenInvokedWithValidUserId_thenResponseStatusOkWithDtoInBody() {
         Long userId = 1L;
         UserDto expectedUser = new UserDto();
+        when(resourceVersions.current(ResourceVersions.USERS, userId)).thenReturn(version);
         when(userService.getUserById(anyLong())).thenReturn(expectedUser);
 
         String response = mockMvc.perform(get("/users/{userId}", userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
@@ -73,6 +84,19 @@ class UserControllerTest {
         assertEquals(objectMapper.writeValueAsString(expectedUser), response);
     }
 
+    @Test
+    @SneakyThrows
+    void getUserById_whenNotModifiedSinceLastModified_thenResponseStatusNotModified() {
+        Long userId = 1L;
+        when(resourceVersions.current(ResourceVersions.USERS, userId)).thenReturn(version);
+        when(userService.getUserById(eq(userId))).thenReturn(new UserDto());
+
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header("If-Modified-Since", "Mon, 01 Jan 2024 10:00:00 GMT"))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @SneakyThrows
     void getUserById_whenUserIdIsInvalid_thenResponseStatusIsBadRequestAndThrowEntityNotFoundException() {
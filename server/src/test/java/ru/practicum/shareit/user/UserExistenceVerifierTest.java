@@ -0,0 +1,34 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.EntityNotFoundException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceVerifierTest {
+    @Mock
+    private UserIdRegistry userIdRegistry;
+    @InjectMocks
+    private UserExistenceVerifier userExistenceVerifier;
+
+    @Test
+    void verify_whenUserInRegistry_thenPasses() {
+        when(userIdRegistry.contains(1L)).thenReturn(true);
+
+        assertDoesNotThrow(() -> userExistenceVerifier.verify(1L));
+    }
+
+    @Test
+    void verify_whenUserNotInRegistry_thenEntityNotFoundExceptionThrown() {
+        when(userIdRegistry.contains(1L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> userExistenceVerifier.verify(1L));
+    }
+}
@@ -1,95 +1,64 @@
 package ru.practicum.shareit.user;
 
-import ch.qos.logback.classic.Level;
-import ch.qos.logback.classic.Logger;
-import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.read.ListAppender;
-import org.assertj.core.api.Assertions;
-import org.assertj.core.groups.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.slf4j.LoggerFactory;
-
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.audit.AuditAction;
+import ru.practicum.shareit.audit.AuditTrail;
+import ru.practicum.shareit.audit.AuditedEntity;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
 class UserTrailListenerTest {
-    private final UserTrailListener userTrailListener = new UserTrailListener();
+    @Mock
+    private ObjectProvider<AuditTrail> auditTrailProvider;
+    @Mock
+    private AuditTrail auditTrail;
+    private UserTrailListener userTrailListener;
     private User user;
 
     @BeforeEach
     void setUp() {
-        user = User.builder()
-                .id(1L)
-                .build();
+        when(auditTrailProvider.getIfAvailable()).thenReturn(auditTrail);
+        userTrailListener = new UserTrailListener(auditTrailProvider);
+        user = User.builder().id(1L).build();
     }
 
     @Test
-    void beforeAnyUpdate_whenInvoked_thenLogUpdateOrDelete() {
-        Logger userTrailListenerLogger = (Logger) LoggerFactory.getLogger(UserTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        userTrailListenerLogger.addAppender(listAppender);
-
-        userTrailListener.beforeAnyUpdate(user);
+    void afterPersist_whenInvoked_thenCreateRecorded() {
+        userTrailListener.afterPersist(user);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[USER AUDIT] About to update/delete user: 1", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.USER, 1L, AuditAction.CREATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenIdNull_thenLogAddToDatabase() {
-        user.setId(null);
-        Logger userTrailListenerLogger = (Logger) LoggerFactory.getLogger(UserTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        userTrailListenerLogger.addAppender(listAppender);
-
-        userTrailListener.beforeAnyUpdate(user);
+    void afterUpdate_whenInvoked_thenUpdateRecorded() {
+        userTrailListener.afterUpdate(user);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[USER AUDIT] About to add a user to database", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.USER, 1L, AuditAction.UPDATE);
     }
 
     @Test
-    void beforeAnyUpdate_whenIdZero_thenLogAddToDatabase() {
-        user.setId(0L);
-        Logger userTrailListenerLogger = (Logger) LoggerFactory.getLogger(UserTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        userTrailListenerLogger.addAppender(listAppender);
+    void afterRemove_whenInvoked_thenDeleteRecorded() {
+        userTrailListener.afterRemove(user);
 
-        userTrailListener.beforeAnyUpdate(user);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[USER AUDIT] About to add a user to database", Level.INFO));
+        verify(auditTrail).record(AuditedEntity.USER, 1L, AuditAction.DELETE);
     }
 
     @Test
-    void afterAnyUpdate_whenInvoked_thenLogAddOrUpdateOrDelete() {
-        Logger userTrailListenerLogger = (Logger) LoggerFactory.getLogger(UserTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        userTrailListenerLogger.addAppender(listAppender);
-
-        userTrailListener.afterAnyUpdate(user);
-
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[USER AUDIT] add/update/delete complete for user: 1", Level.INFO));
-    }
-
-    @Test
-    void afterLoad_whenInvoked_thenLogLoadedFromDatabase() {
-        Logger userTrailListenerLogger = (Logger) LoggerFactory.getLogger(UserTrailListener.class);
-        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
-        listAppender.start();
-        userTrailListenerLogger.addAppender(listAppender);
-
+    void afterLoad_whenInvoked_thenLoadCountedWithoutEvent() {
+        userTrailListener.afterLoad(user);
         userTrailListener.afterLoad(user);
 
-        Assertions.assertThat(listAppender.list)
-                .extracting(ILoggingEvent::getFormattedMessage, ILoggingEvent::getLevel)
-                .containsExactly(Tuple.tuple("[USER AUDIT] user loaded from database: 1", Level.INFO));
+        verify(auditTrail, times(2)).countLoad(AuditedEntity.USER);
+        verify(auditTrailProvider, times(1)).getIfAvailable();
+        verifyNoMoreInteractions(auditTrail);
     }
-}
\ No newline at end of file
+}
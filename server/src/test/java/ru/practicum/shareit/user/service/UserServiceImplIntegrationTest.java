@@ -48,7 +48,7 @@ class UserServiceImplIntegrationTest {
         em.flush();
         UserDto expectedUser = UserMapper.toUserDto(user);
 
-        List<UserDto> actualUsers = userService.getUsers();
+        List<UserDto> actualUsers = userService.getUsers(0, 10);
 
         assertNotNull(actualUsers);
         assertThat(actualUsers.size(), equalTo(1));
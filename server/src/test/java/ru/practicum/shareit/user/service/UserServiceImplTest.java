@@ -8,9 +8,15 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.event.UserChangedEvent;
 import ru.practicum.shareit.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserExistenceVerifier;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -23,7 +29,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +40,10 @@ import static org.mockito.Mockito.when;
 class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private UserExistenceVerifier userExistenceVerifier;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private UserServiceImpl userService;
     @Captor
@@ -55,15 +67,16 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getUsers_whenInvoked_thenUserDtoListIsReturned() {
-        when(userRepository.findAll()).thenReturn(List.of(user));
+    void getUsers_whenInvoked_thenPageOfUserDtoOrderedByIdIsReturned() {
+        PageRequest page = PageRequest.of(2, 5, Sort.by("id"));
+        when(userRepository.findAll(page)).thenReturn(new PageImpl<>(List.of(user)));
 
-        List<UserDto> actualUsers = userService.getUsers();
+        List<UserDto> actualUsers = userService.getUsers(10, 5);
 
         assertNotNull(actualUsers);
         assertThat(actualUsers.size(), equalTo(1));
         assertThat(actualUsers.get(0).getId(), equalTo(user.getId()));
-        verify(userRepository).findAll();
+        verify(userRepository).findAll(page);
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -176,23 +189,21 @@ class UserServiceImplTest {
     @Test
     void deleteUser_whenUserExists_thenUserIsDeleted() {
         Long userId = user.getId();
-        when(userRepository.existsById(userId)).thenReturn(true);
-
         userService.deleteUser(userId);
 
-        verify(userRepository).existsById(anyLong());
+        verify(userExistenceVerifier).verify(userId);
         verify(userRepository).deleteById(userId);
+        verify(eventPublisher).publishEvent(new UserChangedEvent(userId));
         verifyNoMoreInteractions(userRepository);
     }
 
     @Test
     void deleteUser_whenUserExists_thenEntityNotFoundExcetionIsThrown() {
         Long userId = user.getId();
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        doThrow(new EntityNotFoundException("Пользователь не найден")).when(userExistenceVerifier).verify(userId);
 
         assertThrows(EntityNotFoundException.class, () -> userService.deleteUser(userId));
 
-        verify(userRepository).existsById(anyLong());
-        verifyNoMoreInteractions(userRepository);
+        verifyNoInteractions(userRepository);
     }
 }
\ No newline at end of file